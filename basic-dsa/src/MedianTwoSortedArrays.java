@@ -1,4 +1,5 @@
 import java.util.Arrays;
+import java.util.Random;
 import java.util.stream.IntStream;
 
 public class MedianTwoSortedArrays {
@@ -16,11 +17,72 @@ public class MedianTwoSortedArrays {
         }
 
     }
+
+    //k-th smallest (0-based) of the union without merging: binary search on how many of the
+    //k+1 smallest come from num1, O(log(min(m,n))) time and no extra memory
+    private static int kthSmallest(int []num1,int []num2,int k){
+        if(num1.length>num2.length){
+            return kthSmallest(num2,num1,k);
+        }
+        int lo=Math.max(0,k+1-num2.length), hi=Math.min(k+1,num1.length);
+        while(lo<hi){
+            int i=(lo+hi)>>>1;
+            // take i from num1 and k+1-i from num2; too few from num1 if its next value is smaller
+            if(num1[i]<num2[k-i]){
+                lo=i+1;
+            }else{
+                hi=i;
+            }
+        }
+        int i=lo, j=k+1-lo;
+        int fromNum1=i>0?num1[i-1]:Integer.MIN_VALUE;
+        int fromNum2=j>0?num2[j-1]:Integer.MIN_VALUE;
+        return Math.max(fromNum1,fromNum2);
+    }
+
+    //any quantile (nearest rank) of the two sorted arrays, same O(log) path as the median
+    public static int quantile(int []num1,int []num2,double q){
+        int size=num1.length+num2.length;
+        if(size==0 || q<0 || q>1){
+            throw new IllegalArgumentException("size "+size+", q "+q);
+        }
+        int k=Math.max(0,(int)Math.ceil(q*size)-1);
+        return kthSmallest(num1,num2,k);
+    }
+
+    public static double median(int []num1,int []num2){
+        int size=num1.length+num2.length;
+        if(size==0){
+            throw new IllegalArgumentException("both arrays are empty");
+        }
+        if(size%2==1){
+            return kthSmallest(num1,num2,size/2);
+        }
+        return (kthSmallest(num1,num2,size/2-1)+(double)kthSmallest(num1,num2,size/2))/2.0;
+    }
+
     public static void main(String[] args) {
 
         int []nums1 = {1,3}, nums2 = {2};
         double result= mergeTwosort(nums1, nums2);
         System.out.print(result);
+        System.out.println();
+        System.out.println("median : "+median(nums1, nums2));
+        System.out.println("median : "+median(new int[]{1,2}, new int[]{3,4}));
+
+        // percentiles of two large sorted latency arrays, checked against the merged array
+        Random random=new Random(20);
+        int []a=random.ints(1_000_000,0,1_000_000).sorted().toArray();
+        int []b=random.ints(600_000,0,5_000_000).sorted().toArray();
+        int []merged=IntStream.concat(Arrays.stream(a), Arrays.stream(b)).sorted().toArray();
+        for(double q : new double[]{0.5,0.99,0.999}){
+            int expected=merged[(int)Math.ceil(q*merged.length)-1];
+            int actual=quantile(a,b,q);
+            if(actual!=expected){
+                throw new AssertionError("p"+q*100+" : "+actual+" != "+expected);
+            }
+            System.out.println("p"+q*100+" : "+actual);
+        }
 
     }
 
@@ -36,4 +98,13 @@ public class MedianTwoSortedArrays {
     Explanation
     : merged array = [1,2,3] and the median is 2.
      */
+
+    /* expected output
+    2.0
+    median : 2.0
+    median : 2.5
+    p50.0 : 713736
+    p99.0 : 4867122
+    p99.9 : 4986297
+     */
 }
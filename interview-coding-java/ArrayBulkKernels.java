@@ -0,0 +1,115 @@
+//Bulk int[] kernels behind ArrayUtilsFull-style operations: replace all, delete all, reverse.
+//When the JVM runs with --add-modules jdk.incubator.vector and vector/ArrayVectorKernels is
+//on the class path (see that file for the two-step build), calls go to it (SIMD through the
+//Vector API); otherwise the scalar loops below are used. Both paths give identical results.
+public final class ArrayBulkKernels {
+
+    interface Kernels {
+        //replace every oldValue with newValue in place, returns the array
+        int[] replaceAll(int[] arr, int oldValue, int newValue);
+
+        //copy of arr without any occurrence of value
+        int[] deleteAll(int[] arr, int value);
+
+        //reverse in place, returns the array
+        int[] reverse(int[] arr);
+
+        String name();
+    }
+
+    static final Kernels SCALAR = new Kernels() {
+        @Override
+        public int[] replaceAll(int[] arr, int oldValue, int newValue) {
+            for (int i = 0; i < arr.length; i++) {
+                // select instead of branch, so the JIT can use cmov / auto-vectorize
+                arr[i] = arr[i] == oldValue ? newValue : arr[i];
+            }
+            return arr;
+        }
+
+        @Override
+        public int[] deleteAll(int[] arr, int value) {
+            int count = 0;
+            for (int v : arr) {
+                count += v == value ? 1 : 0;
+            }
+            int[] result = new int[arr.length - count];
+            if (count == 0) {
+                System.arraycopy(arr, 0, result, 0, arr.length);
+                return result;
+            }
+            int j = 0;
+            for (int v : arr) {
+                if (v != value) result[j++] = v;
+            }
+            return result;
+        }
+
+        @Override
+        public int[] reverse(int[] arr) {
+            for (int i = 0, j = arr.length - 1; i < j; i++, j--) {
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+            return arr;
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    };
+
+    private static final Kernels ACTIVE = load();
+
+    private ArrayBulkKernels() {
+    }
+
+    public static int[] replaceAll(int[] arr, int oldValue, int newValue) {
+        return ACTIVE.replaceAll(arr, oldValue, newValue);
+    }
+
+    public static int[] deleteAll(int[] arr, int value) {
+        return ACTIVE.deleteAll(arr, value);
+    }
+
+    public static int[] reverse(int[] arr) {
+        return ACTIVE.reverse(arr);
+    }
+
+    static Kernels active() {
+        return ACTIVE;
+    }
+
+    //"vector (<species>)" or "scalar"
+    public static String implementation() {
+        return ACTIVE.name();
+    }
+
+    private static Kernels load() {
+        if (Boolean.getBoolean("arrays.scalar")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            // looked up by name so this class still compiles and runs without the incubator module
+            return (Kernels) Class.forName("ArrayVectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("kernels : " + implementation());
+        System.out.println("replace 2 -> 5 : " + java.util.Arrays.toString(replaceAll(new int[]{1, 2, 2, 3}, 2, 5)));
+        System.out.println("delete all 2   : " + java.util.Arrays.toString(deleteAll(new int[]{1, 2, 2, 3, 2}, 2)));
+        System.out.println("reverse        : " + java.util.Arrays.toString(reverse(new int[]{1, 2, 3, 4, 5})));
+        /*
+        kernels : vector (Species[int, 8, S_256_BIT])   (scalar without --add-modules jdk.incubator.vector)
+        replace 2 -> 5 : [1, 5, 5, 3]
+        delete all 2   : [1, 3]
+        reverse        : [5, 4, 3, 2, 1]
+         */
+    }
+}
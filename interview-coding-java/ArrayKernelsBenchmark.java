@@ -0,0 +1,82 @@
+import java.util.SplittableRandom;
+
+//ArrayUtilsFull loops vs ArrayBulkKernels (scalar and, when available, Vector API) on 1K..100M ints.
+//  javac -d out *.java && java -cp out ArrayKernelsBenchmark                 (scalar only)
+//  javac -d out -cp out --add-modules jdk.incubator.vector vector/*.java
+//  java -cp out --add-modules jdk.incubator.vector ArrayKernelsBenchmark     (vector + scalar)
+//Sizes that do not fit comfortably in -Xmx are skipped; 100M needs about -Xmx2g.
+public class ArrayKernelsBenchmark {
+
+    interface Workload {
+        long run(int[] data);
+    }
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        ArrayBulkKernels.Kernels active = ArrayBulkKernels.active();
+        ArrayBulkKernels.Kernels scalar = ArrayBulkKernels.SCALAR;
+        System.out.println("active kernels: " + active.name());
+        System.out.printf("%-11s %-9s %-16s %12s %9s%n", "n", "op", "impl", "ns/elem", "speedup");
+
+        for (int n : new int[]{1_000, 100_000, 10_000_000, 100_000_000}) {
+            // source + working copy + result for deleteAll
+            if ((long) n * 4 * 3 > Runtime.getRuntime().maxMemory() * 0.8) {
+                System.out.printf("%-11d skipped, needs a larger -Xmx%n", n);
+                continue;
+            }
+            // ~1 in 16 elements match, like the small demo arrays
+            int[] source = new SplittableRandom(3).ints(n, 0, 16).toArray();
+            int[] work = new int[n];
+
+            double base = time(n, "replace", "ArrayUtilsFull", source, work,
+                    d -> ArrayUtilsFull.updateAllOccurrences(d, 2, 5).length, 0);
+            time(n, "replace", scalar.name(), source, work, d -> scalar.replaceAll(d, 2, 5).length, base);
+            if (active != scalar) {
+                time(n, "replace", "vector", source, work, d -> active.replaceAll(d, 2, 5).length, base);
+            }
+
+            base = time(n, "delete", "ArrayUtilsFull", source, work,
+                    d -> ArrayUtilsFull.deleteAllOccurrences(d, 2).length, 0);
+            time(n, "delete", scalar.name(), source, work, d -> scalar.deleteAll(d, 2).length, base);
+            if (active != scalar) {
+                time(n, "delete", "vector", source, work, d -> active.deleteAll(d, 2).length, base);
+            }
+
+            base = time(n, "reverse", "ArrayUtilsFull", source, work,
+                    d -> ArrayUtilsFull.reverseArray(d)[0], 0);
+            time(n, "reverse", scalar.name(), source, work, d -> scalar.reverse(d)[0], base);
+            if (active != scalar) {
+                time(n, "reverse", "vector", source, work, d -> active.reverse(d)[0], base);
+            }
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    // every run starts from a fresh copy of source; the copy is not timed
+    private static double time(int n, String op, String name, int[] source, int[] work, Workload w, double base) {
+        int reps = (int) Math.max(5, Math.min(2_000, 50_000_000L / n));
+        // Vector API calls are only intrinsified once C2 compiles them, so warm up on volume
+        int warmup = (int) Math.max(3, Math.min(20_000, 200_000_000L / n));
+        for (int i = 0; i < warmup; i++) {
+            System.arraycopy(source, 0, work, 0, n);
+            sink += w.run(work);
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < Math.min(reps, 20); r++) {
+            long total = 0;
+            int inner = Math.max(1, reps / 20);
+            for (int i = 0; i < inner; i++) {
+                System.arraycopy(source, 0, work, 0, n);
+                long start = System.nanoTime();
+                sink += w.run(work);
+                total += System.nanoTime() - start;
+            }
+            best = Math.min(best, total / inner);
+        }
+        double perElem = (double) best / n;
+        System.out.printf("%-11d %-9s %-16s %12.3f %9s%n", n, op, name, perElem,
+                base == 0 ? "1.00x" : String.format("%.2fx", base / perElem));
+        return perElem;
+    }
+}
@@ -3,14 +3,14 @@ import java.util.Arrays;
 public class ArrayUtilsFull {
 
 
-    private static int[] insertAtPosition(int arr[], int pos, int value) {
+    static int[] insertAtPosition(int arr[], int pos, int value) {
 
         //updating exiting pos
         int n = arr.length;
         //int;
         // ArrayList<Integer> result=new ArrayList<>();
-        int result[] = new int[n];
-        for (int i = 0, j = 0; i < n; i++) {
+        int result[] = new int[n + 1];
+        for (int i = 0, j = 0; i <= n; i++) {
             if (i == pos) {
                 result[i] = value;
             } else {
@@ -21,21 +21,22 @@ public class ArrayUtilsFull {
 
     }
 
-    private static int[] insertSorted(int arr[], int value) {
+    static int[] insertSorted(int arr[], int value) {
         int n = arr.length;
         int result[] = new int[n + 1];
-        int i = 0;
         //1,2,4,5
         //value=3
-        while (i < n && arr[i] < value) {
-            result[i] = arr[i];
-            i++;
+        //binary search for the first element >= value instead of scanning from the front
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < value) lo = mid + 1;
+            else hi = mid;
         }
 
-        result[i] = value;
-        for (int j = i; j < n; j++) {
-            result[j + 1] = arr[j];
-        }
+        System.arraycopy(arr, 0, result, 0, lo);
+        result[lo] = value;
+        System.arraycopy(arr, lo, result, lo + 1, n - lo);
         return result;
     }
 
@@ -48,7 +49,7 @@ public class ArrayUtilsFull {
         return arr;
     }
 
-    private static int[] updateAllOccurrences(int arr[], int oldvalue, int newvalue) {
+    static int[] updateAllOccurrences(int arr[], int oldvalue, int newvalue) {
         int n = arr.length;
         for (int i = 0; i < n; i++) {
             if (arr[i] == oldvalue) {
@@ -58,7 +59,7 @@ public class ArrayUtilsFull {
         return arr;
     }
 
-    private static int[] deleteAtIndex(int arr[], int index) {
+    static int[] deleteAtIndex(int arr[], int index) {
 
         int n = arr.length;
         if (index < n && index < 0) {
@@ -74,7 +75,7 @@ public class ArrayUtilsFull {
     }
 
 
-    private static int[] deleteAllOccurrences(int arr[], int value) {
+    static int[] deleteAllOccurrences(int arr[], int value) {
         int n = arr.length;
 
         int count = 0;
@@ -93,7 +94,7 @@ public class ArrayUtilsFull {
         return result;
     }
 
-    private static int[] reverseArray(int arr[]) {
+    static int[] reverseArray(int arr[]) {
         for (int i = 0; i < arr.length / 2; i++) {
             int temp = arr[i];
             arr[i] = arr[arr.length - 1 - i];
@@ -103,7 +104,7 @@ public class ArrayUtilsFull {
     }
 
 
-    private static int[] rotateArray(int arr[], int k) {
+    static int[] rotateArray(int arr[], int k) {
         int n = arr.length;
         k = k % n;
 
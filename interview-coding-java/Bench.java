@@ -0,0 +1,40 @@
+import java.util.function.Consumer;
+
+//Warmup + best-of-N timing shared by the *Benchmark mains (there is no JMH in this folder): a task
+//runs a few times untimed so the JIT can compile it, then a few times timed, and the fastest timed
+//round is kept. Every result is handed back, so the measured work cannot be dropped as dead code.
+final class Bench {
+
+    static final int WARMUP = 1;
+    static final int ROUNDS = 3;
+
+    private Bench() {
+    }
+
+    interface Task<R, E extends Exception> {
+        R run() throws E;
+    }
+
+    //fastest of `rounds` timed runs after `warmup` untimed ones, in nanoseconds
+    static <R, E extends Exception> long best(int warmup, int rounds, Task<? extends R, E> task,
+                                              Consumer<? super R> results) throws E {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < warmup + rounds; r++) {
+            long t0 = System.nanoTime();
+            R result = task.run();
+            long elapsed = System.nanoTime() - t0;
+            results.accept(result);
+            if (r >= warmup) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    //prints `name` padded to `width`, the best time in ms and the last result
+    static void report(int width, String name, Task<?, RuntimeException> task) {
+        Object[] last = new Object[1];
+        long best = best(WARMUP, ROUNDS, task, result -> last[0] = result);
+        System.out.printf("%-" + width + "s %10.1f   (%s)%n", name, best / 1e6, last[0]);
+    }
+}
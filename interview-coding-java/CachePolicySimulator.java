@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+//Replays a key trace against LRUCatch with each eviction policy and prints the hit ratio.
+//Trace file: one key per line (first whitespace separated token is used, '#' lines skipped);
+//keys are compared as strings.
+//  javac *.java && java CachePolicySimulator <trace-file> <capacity>
+//  javac *.java && java CachePolicySimulator                           (synthetic zipf + scan trace)
+public class CachePolicySimulator {
+
+    public static void main(String[] args) throws IOException {
+        long[] trace;
+        int capacity;
+        if (args.length >= 2) {
+            trace = readTrace(Path.of(args[0]));
+            capacity = Integer.parseInt(args[1]);
+        } else {
+            trace = syntheticTrace(2_000_000, 100_000, 42);
+            capacity = 5_000;
+        }
+
+        Map<String, IntFunction<EvictionPolicy<Long, Long>>> policies = new LinkedHashMap<>();
+        policies.put("LRU", LruPolicy::new);
+        policies.put("LFU", LfuPolicy::new);
+        policies.put("W-TinyLFU", TinyLfuPolicy::new);
+
+        System.out.println("trace size : " + trace.length + ", capacity : " + capacity);
+        policies.forEach((name, factory) ->
+                System.out.printf("%-10s hit ratio : %6.2f%%%n", name, 100.0 * hitRatio(trace, capacity, factory)));
+    }
+
+    static double hitRatio(long[] trace, int capacity, IntFunction<EvictionPolicy<Long, Long>> policy) {
+        LRUCatch<Long, Long> cache = new LRUCatch<>(capacity, policy);
+        long hits = 0;
+        for (long key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return trace.length == 0 ? 0 : (double) hits / trace.length;
+    }
+
+    // every distinct token gets the next dense id, so two keys never merge (hash codes could)
+    static long[] readTrace(Path file) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .mapToLong(line -> ids.computeIfAbsent(line.split("\\s+|,")[0], token -> ids.size()))
+                    .toArray();
+        }
+    }
+
+    //zipf(0.9) popular keys, with a one-off scan of unseen keys every 100k requests
+    static long[] syntheticTrace(int length, int distinctKeys, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] cdf = new double[distinctKeys];
+        double sum = 0;
+        for (int i = 0; i < distinctKeys; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cdf[i] = sum;
+        }
+
+        long[] trace = new long[length];
+        long scanKey = distinctKeys;
+        for (int i = 0; i < length; i++) {
+            if (i % 100_000 >= 90_000) {
+                trace[i] = scanKey++;
+            } else {
+                double u = random.nextDouble() * sum;
+                int idx = java.util.Arrays.binarySearch(cdf, u);
+                trace[i] = idx >= 0 ? idx : -idx - 1;
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,180 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+//Counters for LRUCatch / ConcurrentLRUCatch. Recording is a LongAdder increment (striped, so
+//threads on different cores do not fight over one cache line); reading goes through snapshot()
+//or JMX and never takes a cache lock. One instance can be shared by all segments of a cache.
+public class CacheStats implements CacheStatsMXBean {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder weight = new LongAdder();
+    private final LatencyHistogram loadTimes = new LatencyHistogram();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+        weight.decrement();
+    }
+
+    void recordExpiration() {
+        expirations.increment();
+        weight.decrement();
+    }
+
+    void recordInsert() {
+        weight.increment();
+    }
+
+    void recordRemoval() {
+        weight.decrement();
+    }
+
+    void recordRemovals(int count) {
+        weight.add(-count);
+    }
+
+    void recordLoad(long nanos, boolean success) {
+        (success ? loadSuccesses : loadFailures).increment();
+        totalLoadNanos.add(nanos);
+        loadTimes.record(nanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    //exposes these counters as <domain>:type=CacheStats,name=<name> on the platform MBean server
+    public ObjectName registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("LRUCatch:type=CacheStats,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register cache stats MBean " + name, e);
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 1.0 : (double) h / total;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public long getLoadSuccessCount() {
+        return loadSuccesses.sum();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public double getAverageLoadPenaltyNanos() {
+        long loads = loadSuccesses.sum() + loadFailures.sum();
+        return loads == 0 ? 0 : (double) totalLoadNanos.sum() / loads;
+    }
+
+    @Override
+    public long getLoadP50Nanos() {
+        return loadTimes.valueAt(0.50);
+    }
+
+    @Override
+    public long getLoadP99Nanos() {
+        return loadTimes.valueAt(0.99);
+    }
+
+    @Override
+    public long getWeight() {
+        return weight.sum();
+    }
+
+    //point-in-time copy; counters keep moving while it is taken, so fields may be off by in-flight ops
+    public static final class Snapshot {
+        public final long hitCount;
+        public final long missCount;
+        public final long evictionCount;
+        public final long expiredCount;
+        public final long loadSuccessCount;
+        public final long loadFailureCount;
+        public final long totalLoadNanos;
+        public final long loadP50Nanos;
+        public final long loadP99Nanos;
+        public final long loadP999Nanos;
+        public final long weight;
+
+        private Snapshot(CacheStats s) {
+            this.hitCount = s.hits.sum();
+            this.missCount = s.misses.sum();
+            this.evictionCount = s.evictions.sum();
+            this.expiredCount = s.expirations.sum();
+            this.loadSuccessCount = s.loadSuccesses.sum();
+            this.loadFailureCount = s.loadFailures.sum();
+            this.totalLoadNanos = s.totalLoadNanos.sum();
+            this.loadP50Nanos = s.loadTimes.valueAt(0.50);
+            this.loadP99Nanos = s.loadTimes.valueAt(0.99);
+            this.loadP999Nanos = s.loadTimes.valueAt(0.999);
+            this.weight = s.weight.sum();
+        }
+
+        public long requestCount() {
+            return hitCount + missCount;
+        }
+
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.3f evictions=%d expired=%d loads=%d/%d"
+                            + " loadP50=%dns loadP99=%dns loadP999=%dns weight=%d",
+                    hitCount, missCount, hitRate(), evictionCount, expiredCount, loadSuccessCount,
+                    loadSuccessCount + loadFailureCount, loadP50Nanos, loadP99Nanos, loadP999Nanos, weight);
+        }
+    }
+}
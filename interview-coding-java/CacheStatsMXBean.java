@@ -0,0 +1,25 @@
+//JMX view of CacheStats; every getter reads the counters, nothing here touches the cache itself.
+public interface CacheStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    long getExpiredCount();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    double getAverageLoadPenaltyNanos();
+
+    long getLoadP50Nanos();
+
+    long getLoadP99Nanos();
+
+    long getWeight();
+}
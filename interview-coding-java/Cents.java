@@ -0,0 +1,141 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+//Money as fixed-point long cents. Long addition is exact and associative, so sums come out
+//bit-identical whatever order or split a parallel stream uses; double sums do not.
+public final class Cents {
+
+    private Cents() {
+    }
+
+    //HALF_EVEN to 2 decimals. Amounts that already are whole cents (the normal case) take the
+    //allocation-free path; anything finer goes through BigDecimal.
+    public static long of(double amount) {
+        double scaled = amount * 100;
+        double rounded = Math.rint(scaled);
+        if (Math.abs(scaled - rounded) < 1e-6 && Math.abs(rounded) < 1e15) {
+            return (long) rounded;
+        }
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    //"-12.05" style, no double in between
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    //exact replacement for Collectors.summingDouble over money
+    public static <T> Collector<T, long[], Long> summing(ToLongFunction<? super T> cents) {
+        return Collector.of(
+                () -> new long[1],
+                (acc, t) -> acc[0] = Math.addExact(acc[0], cents.applyAsLong(t)),
+                (a, b) -> {
+                    a[0] = Math.addExact(a[0], b[0]);
+                    return a;
+                },
+                acc -> acc[0],
+                Collector.Characteristics.UNORDERED);
+    }
+
+    //per-day count/sum/min/max into one primitive map per thread, merged by the combiner;
+    //no boxing and no intermediate Map<LocalDate, ...> per element
+    public static <T> Collector<T, DailyTotalsMap, DailyTotalsMap> dailyTotals(ToIntFunction<? super T> epochDay,
+                                                                            ToLongFunction<? super T> cents) {
+        return new DailyTotalsCollector<>(epochDay, cents);
+    }
+
+    public static Collector<TransactionSummary.Transaction, DailyTotalsMap, DailyTotalsMap> dailyTotals() {
+        return dailyTotals(t -> (int) t.getDate().toEpochDay(), TransactionSummary.Transaction::getAmountCents);
+    }
+
+    private static final class DailyTotalsCollector<T> implements Collector<T, DailyTotalsMap, DailyTotalsMap> {
+        private static final Set<Characteristics> CHARACTERISTICS =
+                EnumSet.of(Characteristics.UNORDERED, Characteristics.IDENTITY_FINISH);
+
+        private final ToIntFunction<? super T> epochDay;
+        private final ToLongFunction<? super T> cents;
+
+        DailyTotalsCollector(ToIntFunction<? super T> epochDay, ToLongFunction<? super T> cents) {
+            this.epochDay = epochDay;
+            this.cents = cents;
+        }
+
+        @Override
+        public Supplier<DailyTotalsMap> supplier() {
+            return DailyTotalsMap::new;
+        }
+
+        @Override
+        public BiConsumer<DailyTotalsMap, T> accumulator() {
+            return (map, t) -> map.addCents(epochDay.applyAsInt(t), cents.applyAsLong(t));
+        }
+
+        @Override
+        public BinaryOperator<DailyTotalsMap> combiner() {
+            return (a, b) -> {
+                // fold the smaller map into the larger one
+                if (a.size() < b.size()) {
+                    b.merge(a);
+                    return b;
+                }
+                a.merge(b);
+                return a;
+            };
+        }
+
+        @Override
+        public Function<DailyTotalsMap, DailyTotalsMap> finisher() {
+            return Function.identity();
+        }
+
+        @Override
+        public Set<Characteristics> characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    public static void main(String[] args) {
+        // TransactionSummary's per-day totals, exact and parallel-safe: one primitive map per thread
+        List<TransactionSummary.Transaction> transactions = List.of(
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 100.50),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 200.75),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 50.00),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 75.25),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 9, 1), 500.00)
+        );
+        transactions.parallelStream().collect(dailyTotals()).forEachSorted((day, count, sum, min, max) ->
+                System.out.println(LocalDate.ofEpochDay(day) + " " + sum));
+        System.out.println("0.1 + 0.2 = " + format(of(0.1) + of(0.2)));
+        /*
+        2025-08-30 301.25
+        2025-08-31 125.25
+        2025-09-01 500.0
+        0.1 + 0.2 = 0.30
+         */
+    }
+}
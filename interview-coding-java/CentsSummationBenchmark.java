@@ -0,0 +1,78 @@
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+//Per-date totals over a parallel stream: summingDouble (Kahan-compensated), plain double
+//reduction and BigDecimal reduction vs the long-cents collector (Cents.dailyTotals). Besides
+//time it checks whether the parallel result is bit-identical to the sequential one:
+//  javac *.java && java CentsSummationBenchmark            (2M transactions)
+//  javac *.java && java CentsSummationBenchmark 10000000
+public class CentsSummationBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate[] dates = new LocalDate[365];
+        for (int d = 0; d < dates.length; d++) {
+            dates[d] = start.plusDays(d);
+        }
+        List<TransactionSummary.Transaction> transactions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // amounts 0.01 .. 9999.99, the kind that have no exact double
+            transactions.add(new TransactionSummary.Transaction(dates[random.nextInt(dates.length)],
+                    random.nextInt(1, 1_000_000) / 100.0));
+        }
+        System.out.printf("%,d transactions, %d cores%n", n, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %10s %12s%n", "collector", "ms", "= sequential");
+
+        Map<LocalDate, Double> doubles = transactions.stream().collect(
+                Collectors.groupingBy(TransactionSummary.Transaction::getDate,
+                        Collectors.summingDouble(TransactionSummary.Transaction::getAmount)));
+        report("summingDouble", () -> transactions.parallelStream().collect(
+                Collectors.groupingByConcurrent(TransactionSummary.Transaction::getDate,
+                        Collectors.summingDouble(TransactionSummary.Transaction::getAmount))), doubles);
+
+        // plain double addition, no compensation
+        Map<LocalDate, Double> naive = transactions.stream().collect(
+                Collectors.groupingBy(TransactionSummary.Transaction::getDate,
+                        Collectors.reducing(0.0, TransactionSummary.Transaction::getAmount, Double::sum)));
+        report("double reduce", () -> transactions.parallelStream().collect(
+                Collectors.groupingByConcurrent(TransactionSummary.Transaction::getDate,
+                        Collectors.reducing(0.0, TransactionSummary.Transaction::getAmount, Double::sum))), naive);
+
+        Map<LocalDate, BigDecimal> decimals = transactions.stream().collect(
+                Collectors.groupingBy(TransactionSummary.Transaction::getDate,
+                        Collectors.reducing(BigDecimal.ZERO, t -> Cents.toBigDecimal(t.getAmountCents()), BigDecimal::add)));
+        report("BigDecimal", () -> transactions.parallelStream().collect(
+                Collectors.groupingByConcurrent(TransactionSummary.Transaction::getDate,
+                        Collectors.reducing(BigDecimal.ZERO, t -> Cents.toBigDecimal(t.getAmountCents()), BigDecimal::add))),
+                decimals);
+
+        DailyTotalsMap cents = transactions.stream().collect(Cents.dailyTotals());
+        report("cents", () -> transactions.parallelStream().collect(Cents.dailyTotals()), cents);
+    }
+
+    private static void report(String name, Bench.Task<Object, RuntimeException> run, Object sequential) {
+        boolean[] identical = {true};
+        // more rounds than the other benchmarks: each parallel result is also compared
+        long best = Bench.best(2, 5, run, result -> identical[0] &= same(result, sequential));
+        System.out.printf("%-14s %10.1f %12s%n", name, best / 1e6, identical[0]);
+    }
+
+    // Double.equals compares bits, BigDecimal.equals compares value and scale
+    private static boolean same(Object a, Object b) {
+        if (a instanceof DailyTotalsMap x && b instanceof DailyTotalsMap y) {
+            if (x.size() != y.size()) return false;
+            for (int day : y.sortedDays()) {
+                if (x.sumCents(day) != y.sumCents(day) || x.count(day) != y.count(day)) return false;
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+//Thread-safe cache: keys are spread over independent LRUCatch segments,
+//each guarded by its own lock, so threads touching different segments never contend.
+//Eviction is decided per segment (approximate global LRU, same trade-off as a striped map).
+//Unlike LRUCatch, null keys are rejected.
+public class ConcurrentLRUCatch<K, V> {
+
+    private final LRUCatch<K, V>[] segments;
+    private final int mask;
+    private final int cap;
+
+    public ConcurrentLRUCatch(int cap) {
+        this(cap, defaultSegments(), null);
+    }
+
+    public ConcurrentLRUCatch(int cap, int concurrency, BiConsumer<? super K, ? super V> onEvict) {
+        this(cap, concurrency, LruPolicy::new, onEvict);
+    }
+
+    //each segment gets its own policy instance sized to the segment's capacity
+    public ConcurrentLRUCatch(int cap, int concurrency, IntFunction<? extends EvictionPolicy<K, V>> policyFactory,
+                              BiConsumer<? super K, ? super V> onEvict) {
+        this(LRUCatch.<K, V>newBuilder(cap).policy(policyFactory).onEvict(onEvict), concurrency);
+    }
+
+    //every segment is built from the same settings (policy, TTLs, refresh loader), with its share of the capacity
+    public ConcurrentLRUCatch(LRUCatch.Builder<K, V> builder, int concurrency) {
+        int cap = builder.capacity();
+        if (cap <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + cap);
+        }
+        // power of two segments, but never more segments than entries
+        int n = Integer.highestOneBit(Math.max(1, Math.min(concurrency, cap)) * 2 - 1);
+        if (n > cap) n >>>= 1;
+
+        @SuppressWarnings("unchecked")
+        LRUCatch<K, V>[] segs = (LRUCatch<K, V>[]) new LRUCatch<?, ?>[n];
+        for (int i = 0; i < n; i++) {
+            // spread the remainder so the segment capacities add up to cap
+            int segCap = cap / n + (i < cap % n ? 1 : 0);
+            segs[i] = builder.copyWithCapacity(segCap).build();
+        }
+        this.segments = segs;
+        this.mask = n - 1;
+        this.cap = cap;
+    }
+
+    private static int defaultSegments() {
+        return Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    public V get(K key) {
+        LRUCatch<K, V> seg = segmentFor(key);
+        synchronized (seg) {
+            return seg.get(key);
+        }
+    }
+
+    public V put(K key, V value) {
+        LRUCatch<K, V> seg = segmentFor(key);
+        synchronized (seg) {
+            return seg.put(key, value);
+        }
+    }
+
+    public V remove(K key) {
+        LRUCatch<K, V> seg = segmentFor(key);
+        synchronized (seg) {
+            return seg.remove(key);
+        }
+    }
+
+    public boolean containsKey(K key) {
+        LRUCatch<K, V> seg = segmentFor(key);
+        synchronized (seg) {
+            return seg.containsKey(key);
+        }
+    }
+
+    //sweeps expired entries and applies finished refreshes in every segment
+    public void cleanUp() {
+        for (LRUCatch<K, V> seg : segments) {
+            synchronized (seg) {
+                seg.cleanUp();
+            }
+        }
+    }
+
+    //sum over segments; not an atomic snapshot while writers are running
+    public int size() {
+        int size = 0;
+        for (LRUCatch<K, V> seg : segments) {
+            synchronized (seg) {
+                size += seg.size();
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return cap;
+    }
+
+    //all segments record into the builder's CacheStats; null unless built with recordStats()
+    public CacheStats stats() {
+        return segments[0].stats();
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    private LRUCatch<K, V> segmentFor(K key) {
+        if (key == null) {
+            throw new NullPointerException("null keys are not supported");
+        }
+        int h = key.hashCode();
+        // fold the high half in first, so hash codes that differ only in their high bits still spread,
+        // then multiply; bits 16..31 of the product pick the segment, the HashMap inside uses the low bits
+        h = (h ^ (h >>> 16)) * 0x9E3779B9;
+        return segments[(h >>> 16) & mask];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentLRUCatch<Integer, String> cache = new ConcurrentLRUCatch<>(1000);
+
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    int key = (i * 31 + id) % 2000;
+                    if (cache.get(key) == null) {
+                        cache.put(key, "v" + key);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+
+        System.out.println("segments : " + cache.segmentCount());
+        System.out.println("size     : " + cache.size() + " / " + cache.capacity());
+    }
+}
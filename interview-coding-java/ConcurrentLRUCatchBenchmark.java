@@ -0,0 +1,98 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+//Multi-threaded throughput of ConcurrentLRUCatch vs one LRUCatch behind a single lock.
+//Each thread runs a 90% read / 10% write mix for a fixed time; scaling is reported
+//relative to the 1-thread run. Scaling numbers only make sense on a box with
+//at least as many cores as threads.
+//  javac *.java && java ConcurrentLRUCatchBenchmark [maxThreads] [millisPerRun]
+public class ConcurrentLRUCatchBenchmark {
+
+    interface Cache {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int capacity = 1 << 20;
+        int keySpace = capacity * 2;
+
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %-12s %14s %8s%n", "threads", "impl", "ops/s", "scale");
+
+        ConcurrentLRUCatch<Integer, Integer> striped = new ConcurrentLRUCatch<>(capacity);
+        run("striped", maxThreads, millis, keySpace, new Cache() {
+            public Integer get(Integer key) { return striped.get(key); }
+            public void put(Integer key, Integer value) { striped.put(key, value); }
+        });
+
+        LRUCatch<Integer, Integer> single = new LRUCatch<>(capacity);
+        run("one-lock", maxThreads, millis, keySpace, new Cache() {
+            public synchronized Integer get(Integer key) { return single.get(key); }
+            public synchronized void put(Integer key, Integer value) { single.put(key, value); }
+        });
+    }
+
+    private static void run(String name, int maxThreads, long millis, int keySpace, Cache cache)
+            throws InterruptedException {
+        // prefill so reads hit from the first measured op
+        for (int i = 0; i < keySpace / 2; i++) {
+            cache.put(i, i);
+        }
+        measure(cache, 1, millis, keySpace); // warmup
+
+        double base = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double opsPerSec = measure(cache, threads, millis, keySpace);
+            if (threads == 1) base = opsPerSec;
+            System.out.printf("%-8d %-12s %,14.0f %8.2f%n", threads, name, opsPerSec, opsPerSec / base);
+        }
+    }
+
+    private static double measure(Cache cache, int threads, long millis, int keySpace)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long done = 0;
+                while (true) {
+                    // check the clock every 1024 ops only
+                    for (int i = 0; i < 1024; i++) {
+                        int key = random.nextInt(keySpace);
+                        if (random.nextInt(10) == 0) {
+                            cache.put(key, key);
+                        } else {
+                            cache.get(key);
+                        }
+                    }
+                    done += 1024;
+                    if (System.nanoTime() >= deadline[0]) break;
+                }
+                ops.add(done);
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000;
+        start.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        return ops.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+}
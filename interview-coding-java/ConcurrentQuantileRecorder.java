@@ -0,0 +1,82 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+//Thread-safe quantile recording on top of KllSketch: values are spread over independent
+//sketch stripes, each guarded by its own lock (same striping as ConcurrentLRUCatch), so
+//recording threads rarely meet on the same lock. snapshot() merges copies of all stripes
+//into one sketch; the error bound of the merged sketch is that of a single KllSketch.
+public class ConcurrentQuantileRecorder {
+
+    private final KllSketch[] stripes;
+    private final int mask;
+    private final int k;
+
+    public ConcurrentQuantileRecorder() {
+        this(KllSketch.DEFAULT_K, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ConcurrentQuantileRecorder(int k, int concurrency) {
+        int n = Integer.highestOneBit(Math.max(1, concurrency) * 2 - 1);
+        this.k = k;
+        this.mask = n - 1;
+        this.stripes = new KllSketch[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new KllSketch(k);
+        }
+    }
+
+    public void record(double value) {
+        // a thread keeps hitting the same stripe, so its lock stays uncontended and cache-warm
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        KllSketch stripe = stripes[(h ^ (h >>> 16)) & mask];
+        synchronized (stripe) {
+            stripe.update(value);
+        }
+    }
+
+    //merged view of everything recorded so far; recording continues meanwhile
+    public KllSketch snapshot() {
+        KllSketch merged = new KllSketch(k);
+        for (KllSketch stripe : stripes) {
+            synchronized (stripe) {
+                merged.merge(stripe);
+            }
+        }
+        return merged;
+    }
+
+    //snapshot and start over, e.g. once per reporting interval
+    public KllSketch snapshotAndReset() {
+        KllSketch merged = new KllSketch(k);
+        for (KllSketch stripe : stripes) {
+            synchronized (stripe) {
+                merged.merge(stripe);
+                stripe.clear();
+            }
+        }
+        return merged;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentQuantileRecorder recorder = new ConcurrentQuantileRecorder();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 1_000_000; i++) {
+                    // uniform 0..1000 ms
+                    recorder.record(random.nextDouble() * 1000);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        KllSketch sketch = recorder.snapshot();
+        System.out.printf("n=%d p50=%.0f p99=%.0f p999=%.0f (exact 500 / 990 / 999, +-%.0f)%n", sketch.count(),
+                sketch.quantile(0.5), sketch.quantile(0.99), sketch.quantile(0.999), sketch.normalizedRankError() * 1000);
+        /* estimates vary from run to run within the bound
+        n=4000000 p50=497 p99=989 p999=998 (exact 500 / 990 / 999, +-13)
+         */
+    }
+}
@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+//Per-day running totals keyed by epoch-day (LocalDate.toEpochDay()) without boxing:
+//open addressing (linear probing) over an int key array, with count/sum/min/max in parallel
+//primitive arrays. One entry per distinct day, nothing allocated per transaction.
+//Amounts are kept as long cents (see Cents), so totals do not depend on insertion or merge order.
+public class DailyTotalsMap {
+
+    public interface DayConsumer {
+        void accept(int epochDay, long count, double sum, double min, double max);
+    }
+
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] days;
+    private long[] counts;
+    private long[] sums;
+    private long[] mins;
+    private long[] maxs;
+    private int mask;
+    private int size;
+
+    private final LinearProbing.Table probing = new LinearProbing.Table() {
+        @Override
+        public int home(int i) {
+            return days[i] == FREE ? -1 : LinearProbing.mix(days[i]) & mask;
+        }
+
+        @Override
+        public void move(int from, int to) {
+            days[to] = days[from];
+            counts[to] = counts[from];
+            sums[to] = sums[from];
+            mins[to] = mins[from];
+            maxs[to] = maxs[from];
+        }
+
+        @Override
+        public void clear(int i) {
+            days[i] = FREE;
+        }
+    };
+
+    public DailyTotalsMap() {
+        this(16);
+    }
+
+    public DailyTotalsMap(int expectedDays) {
+        allocate(Integer.highestOneBit(Math.max(8, expectedDays) * 2 - 1) << 1);
+    }
+
+    //amount is rounded HALF_EVEN to cents
+    public void add(int epochDay, double amount) {
+        addCents(epochDay, Cents.of(amount));
+    }
+
+    public void addCents(int epochDay, long cents) {
+        int slot = slotFor(epochDay);
+        counts[slot]++;
+        sums[slot] = Math.addExact(sums[slot], cents);
+        if (cents < mins[slot]) mins[slot] = cents;
+        if (cents > maxs[slot]) maxs[slot] = cents;
+    }
+
+    //fold another map in (e.g. per-thread partial results)
+    public void merge(DailyTotalsMap other) {
+        for (int i = 0; i < other.days.length; i++) {
+            if (other.days[i] != FREE) {
+                int slot = slotFor(other.days[i]);
+                counts[slot] += other.counts[i];
+                sums[slot] = Math.addExact(sums[slot], other.sums[i]);
+                mins[slot] = Math.min(mins[slot], other.mins[i]);
+                maxs[slot] = Math.max(maxs[slot], other.maxs[i]);
+            }
+        }
+    }
+
+    public boolean contains(int epochDay) {
+        return indexOf(epochDay) >= 0;
+    }
+
+    public long count(int epochDay) {
+        int i = indexOf(epochDay);
+        return i < 0 ? 0 : counts[i];
+    }
+
+    public double sum(int epochDay) {
+        return Cents.toDouble(sumCents(epochDay));
+    }
+
+    public long sumCents(int epochDay) {
+        int i = indexOf(epochDay);
+        return i < 0 ? 0 : sums[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //days in ascending order
+    public int[] sortedDays() {
+        int[] out = new int[size];
+        int j = 0;
+        for (int day : days) {
+            if (day != FREE) out[j++] = day;
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    //ascending by day
+    public void forEachSorted(DayConsumer action) {
+        for (int day : sortedDays()) {
+            int i = indexOf(day);
+            accept(action, day, i);
+        }
+    }
+
+    //removes every day < epochDay, handing them to action in ascending order
+    public void removeBefore(int epochDay, DayConsumer action) {
+        int n = 0;
+        int[] closing = new int[size];
+        for (int day : days) {
+            if (day != FREE && day < epochDay) closing[n++] = day;
+        }
+        Arrays.sort(closing, 0, n);
+        for (int k = 0; k < n; k++) {
+            int i = indexOf(closing[k]);
+            accept(action, closing[k], i);
+            deleteAt(i);
+        }
+    }
+
+    private void accept(DayConsumer action, int day, int i) {
+        action.accept(day, counts[i], Cents.toDouble(sums[i]), Cents.toDouble(mins[i]), Cents.toDouble(maxs[i]));
+    }
+
+    private int slotFor(int epochDay) {
+        if (epochDay == FREE) {
+            throw new IllegalArgumentException("epoch day out of range: " + epochDay);
+        }
+        int i = LinearProbing.mix(epochDay) & mask;
+        while (days[i] != FREE) {
+            if (days[i] == epochDay) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if ((size + 1) * 2 > days.length) {
+            rehash();
+            return slotFor(epochDay);
+        }
+        days[i] = epochDay;
+        counts[i] = 0;
+        sums[i] = 0;
+        mins[i] = Long.MAX_VALUE;
+        maxs[i] = Long.MIN_VALUE;
+        size++;
+        return i;
+    }
+
+    private int indexOf(int epochDay) {
+        int i = LinearProbing.mix(epochDay) & mask;
+        while (days[i] != FREE) {
+            if (days[i] == epochDay) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void deleteAt(int hole) {
+        LinearProbing.deleteAt(probing, hole, mask);
+        size--;
+    }
+
+    private void rehash() {
+        int[] oldDays = days;
+        long[] oldCounts = counts;
+        long[] oldSums = sums;
+        long[] oldMins = mins;
+        long[] oldMaxs = maxs;
+        allocate(oldDays.length * 2);
+        for (int j = 0; j < oldDays.length; j++) {
+            if (oldDays[j] != FREE) {
+                int i = LinearProbing.mix(oldDays[j]) & mask;
+                while (days[i] != FREE) {
+                    i = (i + 1) & mask;
+                }
+                days[i] = oldDays[j];
+                counts[i] = oldCounts[j];
+                sums[i] = oldSums[j];
+                mins[i] = oldMins[j];
+                maxs[i] = oldMaxs[j];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        days = new int[capacity];
+        Arrays.fill(days, FREE);
+        counts = new long[capacity];
+        sums = new long[capacity];
+        mins = new long[capacity];
+        maxs = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+}
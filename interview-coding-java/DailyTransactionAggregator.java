@@ -0,0 +1,152 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+//Incremental per-day summary (sum, count, min, max) over an unbounded transaction stream.
+//Running totals live in a DailyTotalsMap keyed by epoch-day. The watermark trails the newest
+//day seen by allowedLatenessDays; every day before it is closed: emitted once, in date order,
+//and dropped from memory. Memory therefore follows the number of open days, not the number
+//of transactions. Transactions for an already closed day are counted as late and ignored.
+public class DailyTransactionAggregator {
+
+    public static final class DaySummary {
+        public final LocalDate date;
+        public final long count;
+        public final double sum;
+        public final double min;
+        public final double max;
+
+        DaySummary(int epochDay, long count, double sum, double min, double max) {
+            this.date = LocalDate.ofEpochDay(epochDay);
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public String toString() {
+            return date + " " + sum + " (count " + count + ", min " + min + ", max " + max + ")";
+        }
+    }
+
+    private final int allowedLatenessDays;
+    private final Consumer<DaySummary> onDayClosed;
+    private final DailyTotalsMap open = new DailyTotalsMap();
+    private int watermark = Integer.MIN_VALUE + 1;  // first day that is still open
+    private int newestDay = Integer.MIN_VALUE + 1;
+    private long lateCount;
+
+    public DailyTransactionAggregator(int allowedLatenessDays, Consumer<DaySummary> onDayClosed) {
+        if (allowedLatenessDays < 0) {
+            throw new IllegalArgumentException("allowedLatenessDays must be >= 0: " + allowedLatenessDays);
+        }
+        this.allowedLatenessDays = allowedLatenessDays;
+        this.onDayClosed = onDayClosed;
+    }
+
+    public void accept(TransactionSummary.Transaction t) {
+        acceptCents((int) t.getDate().toEpochDay(), t.getAmountCents());
+    }
+
+    public void accept(int epochDay, double amount) {
+        acceptCents(epochDay, Cents.of(amount));
+    }
+
+    public void acceptCents(int epochDay, long cents) {
+        if (epochDay < watermark) {
+            lateCount++;
+            return;
+        }
+        open.addCents(epochDay, cents);
+        if (epochDay > newestDay) {
+            newestDay = epochDay;
+            advanceWatermark(newestDay - allowedLatenessDays);
+        }
+    }
+
+    //close every day before epochDay (no-op if the watermark is already past it)
+    public void advanceWatermark(int epochDay) {
+        if (epochDay <= watermark) {
+            return;
+        }
+        watermark = epochDay;
+        open.removeBefore(epochDay, (day, count, sum, min, max) ->
+                onDayClosed.accept(new DaySummary(day, count, sum, min, max)));
+    }
+
+    //end of stream: close everything that is still open
+    public void flush() {
+        if (open.size() > 0) {
+            advanceWatermark(newestDay + 1);
+        }
+    }
+
+    public void consume(Iterator<TransactionSummary.Transaction> transactions) {
+        while (transactions.hasNext()) {
+            accept(transactions.next());
+        }
+    }
+
+    //lines of "yyyy-MM-dd,amount"; blank lines and lines starting with '#' are skipped
+    public void consume(BufferedReader lines) throws IOException {
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            int day = (int) LocalDate.parse(line.substring(0, comma).trim()).toEpochDay();
+            acceptCents(day, Cents.of(new BigDecimal(line.substring(comma + 1).trim())));
+        }
+    }
+
+    //takes from queue until endOfStream (compared by identity) arrives, then flushes
+    public void consume(BlockingQueue<TransactionSummary.Transaction> queue,
+                        TransactionSummary.Transaction endOfStream) throws InterruptedException {
+        while (true) {
+            TransactionSummary.Transaction t = queue.take();
+            if (t == endOfStream) {
+                flush();
+                return;
+            }
+            accept(t);
+        }
+    }
+
+    public int openDays() {
+        return open.size();
+    }
+
+    public long lateCount() {
+        return lateCount;
+    }
+
+    public LocalDate watermark() {
+        return watermark <= Integer.MIN_VALUE + 1 ? null : LocalDate.ofEpochDay(watermark);
+    }
+
+    public static void main(String[] args) {
+        // TransactionSummary's data, streamed: days are emitted as soon as they close, nothing is materialized
+        List<TransactionSummary.Transaction> transactions = List.of(
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 100.50),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 200.75),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 50.00),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 75.25),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 9, 1), 500.00)
+        );
+        DailyTransactionAggregator aggregator = new DailyTransactionAggregator(0, System.out::println);
+        aggregator.consume(transactions.iterator());
+        aggregator.flush();
+        /*
+        2025-08-30 301.25 (count 2, min 100.5, max 200.75)
+        2025-08-31 125.25 (count 2, min 50.0, max 75.25)
+        2025-09-01 500.0 (count 1, min 500.0, max 500.0)
+         */
+    }
+}
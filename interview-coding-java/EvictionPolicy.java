@@ -0,0 +1,25 @@
+import java.util.function.Consumer;
+
+//Decides which entry LRUCatch drops once it holds more than its capacity.
+//A policy keeps its own ordering by linking the cache's nodes into LRUCatch.NodeList queues,
+//so every callback is O(1) and no extra per-entry objects are needed.
+//Implementations are created per cache from its capacity, e.g. new LRUCatch<>(1000, TinyLfuPolicy::new).
+public interface EvictionPolicy<K, V> {
+
+    //a new entry was added to the cache
+    void onInsert(LRUCatch.Node<K, V> node);
+
+    //an existing entry was read or overwritten
+    void onAccess(LRUCatch.Node<K, V> node);
+
+    //an entry was removed explicitly
+    void onRemove(LRUCatch.Node<K, V> node);
+
+    //cache is one over capacity: unlink and return the entry to drop (may be the one just inserted)
+    LRUCatch.Node<K, V> evict();
+
+    //visit entries in queue order, eldest first (used for printing only)
+    void forEach(Consumer<LRUCatch.Node<K, V>> action);
+
+    String name();
+}
@@ -0,0 +1,529 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//External merge sort for record files larger than the heap (MultiFieldSort students and the like).
+//  1. runs: records are read until the run holds half the memory budget, then the run is sorted
+//     (MultiKeyComparator packed keys through Arrays.parallelSort(long[]), otherwise
+//     Arrays.parallelSort(T[], order)) and spilled to a temp file on the pool while the next run
+//     is being read. So at most two runs are in memory.
+//  2. spill: [int length][codec bytes] per record, written and read through direct ByteBuffers
+//     and a FileChannel.
+//  3. merge: a loser tree over all runs (log2(runs) comparisons per record). If the budget does
+//     not allow one read buffer per run, consecutive runs are merged in several passes.
+//Equal records are taken from the earlier run first and runs keep input order, so the output is
+//exactly what a stable List.sort(order) would give. A sort that fits in one run never touches disk.
+//Memory use is estimated as codec size + RECORD_OVERHEAD per record, not measured.
+//One sort at a time per instance.
+public final class ExternalMergeSort<T> {
+
+    public static final int RECORD_OVERHEAD = 48;
+    private static final int MIN_BUFFER = 1 << 16;
+    private static final int MAX_BUFFER = 1 << 22;
+
+    //fixed binary form of a record; read must consume exactly size(value) bytes
+    public interface Codec<T> {
+        int size(T value);
+
+        void write(T value, ByteBuffer out);
+
+        T read(ByteBuffer in);
+    }
+
+    public interface Sink<T> {
+        void accept(T value) throws IOException;
+    }
+
+    //[int age][double grade][int n][name: n Latin-1 bytes, or ~n UTF-16 chars when n is negative]
+    public static final Codec<MultiFieldSort.Student> STUDENT_CODEC = new Codec<>() {
+        public int size(MultiFieldSort.Student s) {
+            String name = s.getName();
+            return 16 + (isLatin1(name) ? name.length() : name.length() * 2);
+        }
+
+        public void write(MultiFieldSort.Student s, ByteBuffer out) {
+            String name = s.getName();
+            out.putInt(s.getAge()).putDouble(s.getGrade());
+            if (isLatin1(name)) {
+                out.putInt(name.length());
+                for (int i = 0; i < name.length(); i++) {
+                    out.put((byte) name.charAt(i));
+                }
+            } else {
+                out.putInt(~name.length());
+                for (int i = 0; i < name.length(); i++) {
+                    out.putChar(name.charAt(i));
+                }
+            }
+        }
+
+        public MultiFieldSort.Student read(ByteBuffer in) {
+            int age = in.getInt();
+            double grade = in.getDouble();
+            int n = in.getInt();
+            String name;
+            if (n >= 0) {
+                byte[] bytes = new byte[n];
+                in.get(bytes);
+                name = new String(bytes, StandardCharsets.ISO_8859_1);
+            } else {
+                char[] chars = new char[~n];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = in.getChar();
+                }
+                name = new String(chars);
+            }
+            return new MultiFieldSort.Student(name, age, grade);
+        }
+
+        private boolean isLatin1(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) > 0xFF) return false;
+            }
+            return true;
+        }
+    };
+
+    private final Comparator<? super T> order;
+    private final Codec<T> codec;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final ForkJoinPool pool;
+    private int lastRunCount;
+    private int lastMergePasses;
+
+    public ExternalMergeSort(Comparator<? super T> order, Codec<T> codec, long memoryBudget, Path tempDir) {
+        this(order, codec, memoryBudget, tempDir, ForkJoinPool.commonPool());
+    }
+
+    public ExternalMergeSort(Comparator<? super T> order, Codec<T> codec, long memoryBudget, Path tempDir,
+                             ForkJoinPool pool) {
+        if (memoryBudget < 4L * MIN_BUFFER) {
+            throw new IllegalArgumentException("memory budget must be >= " + 4 * MIN_BUFFER + ": " + memoryBudget);
+        }
+        this.order = order;
+        this.codec = codec;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+        this.pool = pool;
+    }
+
+    //runs written by the last sort (0 when it fit in memory)
+    public int lastRunCount() {
+        return lastRunCount;
+    }
+
+    public int lastMergePasses() {
+        return lastMergePasses;
+    }
+
+    public void sort(Iterator<? extends T> input, Sink<? super T> output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        List<Path> created = new ArrayList<>();
+        // the spill not joined yet, if any
+        ForkJoinTask<Path> spilling = null;
+        try {
+            long runBudget = memoryBudget / 2;
+            List<T> run = new ArrayList<>();
+            long runBytes = 0;
+            while (input.hasNext()) {
+                T value = input.next();
+                run.add(value);
+                runBytes += codec.size(value) + RECORD_OVERHEAD;
+                if (runBytes >= runBudget && input.hasNext()) {
+                    // the previous spill must be done before a third run could pile up
+                    if (spilling != null) {
+                        runs.add(join(spilling, created));
+                        spilling = null;
+                    }
+                    List<T> full = run;
+                    spilling = pool.submit(() -> {
+                        try {
+                            return spill(sortRun(full));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    run = new ArrayList<>();
+                    runBytes = 0;
+                }
+            }
+            if (spilling == null) {
+                lastRunCount = 0;
+                lastMergePasses = 0;
+                for (T value : sortRun(run)) {
+                    output.accept(value);
+                }
+                return;
+            }
+            runs.add(join(spilling, created));
+            spilling = null;
+            if (!run.isEmpty()) {
+                Path last = spill(sortRun(run));
+                created.add(last);
+                runs.add(last);
+            }
+            lastRunCount = runs.size();
+            lastMergePasses = 1;
+
+            int maxFanIn = (int) Math.max(2, memoryBudget / MIN_BUFFER - 1);
+            while (runs.size() > maxFanIn) {
+                // merge consecutive groups so that run order (and with it stability) is kept
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += maxFanIn) {
+                    List<Path> group = runs.subList(from, Math.min(runs.size(), from + maxFanIn));
+                    Path out = Files.createTempFile(tempDir, "run", ".bin");
+                    created.add(out);
+                    merged.add(out);
+                    try (RunWriter writer = new RunWriter(out)) {
+                        merge(group, writer::write);
+                    }
+                    for (Path p : group) {
+                        Files.deleteIfExists(p);
+                    }
+                }
+                runs = merged;
+                lastMergePasses++;
+            }
+            merge(runs, output);
+        } finally {
+            if (spilling != null) {
+                // input or output threw while a spill was pending: wait for its file so it is deleted too
+                // (cancel would not do, a ForkJoinTask cancelled while running still writes the file)
+                try {
+                    created.add(spilling.join());
+                } catch (RuntimeException e) {
+                    // a failed spill has already deleted its file
+                }
+            }
+            for (Path p : created) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    public List<T> sortToList(Iterator<? extends T> input) throws IOException {
+        List<T> out = new ArrayList<>();
+        sort(input, out::add);
+        return out;
+    }
+
+    // stable: MultiKeyComparator.sorted and Arrays.parallelSort(T[]) both keep equal records in order
+    @SuppressWarnings("unchecked")
+    private List<T> sortRun(List<T> run) {
+        if (order instanceof MultiKeyComparator) {
+            return ((MultiKeyComparator<T>) order).sorted(run);
+        }
+        T[] array = (T[]) run.toArray();
+        Arrays.parallelSort(array, order);
+        return Arrays.asList(array);
+    }
+
+    private Path spill(List<T> sorted) throws IOException {
+        Path file = Files.createTempFile(tempDir, "run", ".bin");
+        try (RunWriter writer = new RunWriter(file)) {
+            for (T value : sorted) {
+                writer.write(value);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private void merge(List<Path> runs, Sink<? super T> output) throws IOException {
+        int buffer = (int) Math.max(MIN_BUFFER, Math.min(MAX_BUFFER, memoryBudget / (runs.size() + 1)));
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                readers.add(new RunReader(run, buffer));
+            }
+            LoserTree tree = new LoserTree(readers);
+            for (T value = tree.poll(); value != null; value = tree.poll()) {
+                output.accept(value);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    // tree[1..k-1] hold the loser of the match at that node, tree[0] the overall winner;
+    // leaf i sits at position k + i. An exhausted run loses to everything.
+    private final class LoserTree {
+        private final List<RunReader> runs;
+        private final Object[] heads;
+        private final int[] tree;
+        private final int k;
+
+        LoserTree(List<RunReader> runs) throws IOException {
+            this.runs = runs;
+            this.k = runs.size();
+            this.heads = new Object[k];
+            this.tree = new int[k];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < k; i++) {
+                heads[i] = runs.get(i).next();
+            }
+            for (int i = k - 1; i >= 0; i--) {
+                // the first leaf to reach a node parks there; the second plays it and moves on
+                int winner = i;
+                int t = (i + k) >> 1;
+                while (t > 0 && tree[t] != -1) {
+                    if (beats(tree[t], winner)) {
+                        int loser = winner;
+                        winner = tree[t];
+                        tree[t] = loser;
+                    }
+                    t >>= 1;
+                }
+                if (t > 0) {
+                    tree[t] = winner;
+                } else {
+                    tree[0] = winner;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T poll() throws IOException {
+            int winner = tree[0];
+            T value = (T) heads[winner];
+            if (value == null) {
+                return null;
+            }
+            heads[winner] = runs.get(winner).next();
+            // replay only the path from the refilled leaf to the root
+            for (int t = (winner + k) >> 1; t > 0; t >>= 1) {
+                if (beats(tree[t], winner)) {
+                    int loser = winner;
+                    winner = tree[t];
+                    tree[t] = loser;
+                }
+            }
+            tree[0] = winner;
+            return value;
+        }
+
+        // run a's head comes before run b's head; ties go to the earlier run
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b) {
+            Object x = heads[a];
+            Object y = heads[b];
+            if (x == null) return false;
+            if (y == null) return true;
+            int c = order.compare((T) x, (T) y);
+            return c < 0 || (c == 0 && a < b);
+        }
+    }
+
+    private final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(MIN_BUFFER);
+
+        RunWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(T value) throws IOException {
+            int size = codec.size(value);
+            if (buffer.remaining() < 4 + size) {
+                flush();
+            }
+            if (buffer.remaining() < 4 + size) {
+                // larger than the whole buffer: one-off heap buffer
+                ByteBuffer big = ByteBuffer.allocate(4 + size);
+                big.putInt(size);
+                codec.write(value, big);
+                big.flip();
+                writeFully(big);
+                return;
+            }
+            buffer.putInt(size);
+            codec.write(value, buffer);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private final class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+
+        RunReader(Path file, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.flip();
+        }
+
+        // null at the end of the run
+        T next() throws IOException {
+            if (!ensure(4)) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("truncated run file");
+                }
+                return null;
+            }
+            int size = buffer.getInt();
+            if (!ensure(size)) {
+                throw new IOException("truncated run file");
+            }
+            int end = buffer.position() + size;
+            T value = codec.read(buffer);
+            if (buffer.position() != end) {
+                throw new IOException("codec read " + (buffer.position() - end + size) + " of " + size + " bytes");
+            }
+            return value;
+        }
+
+        // at least need bytes readable, refilling (and growing for an oversized record) as required
+        private boolean ensure(int need) throws IOException {
+            if (buffer.remaining() >= need) {
+                return true;
+            }
+            if (buffer.capacity() < need) {
+                ByteBuffer bigger = ByteBuffer.allocateDirect(need);
+                bigger.put(buffer);
+                buffer = bigger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // fill the whole buffer: fewer, larger reads
+            }
+            buffer.flip();
+            return buffer.remaining() >= need;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // waits for a spill; the run file is registered for cleanup either way
+    private static Path join(ForkJoinTask<Path> task, List<Path> created) throws IOException {
+        try {
+            Path file = task.join();
+            created.add(file);
+            return file;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //sorts a "name,age,grade" CSV file by MultiFieldSort's order (age, grade descending, name)
+    public static void sortStudentCsv(Path in, Path out, long memoryBudget) throws IOException {
+        ExternalMergeSort<MultiFieldSort.Student> sorter = new ExternalMergeSort<>(
+                MultiKeyComparator.STUDENT_ORDER, STUDENT_CODEC, memoryBudget, out.toAbsolutePath().getParent());
+        try (BufferedReader reader = Files.newBufferedReader(in, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            Iterator<MultiFieldSort.Student> students = reader.lines().map(ExternalMergeSort::parseStudent).iterator();
+            sorter.sort(students, s -> {
+                writer.write(s.getName() + "," + s.getAge() + "," + s.getGrade());
+                writer.newLine();
+            });
+        }
+    }
+
+    // name may contain commas, age and grade are the last two fields
+    private static MultiFieldSort.Student parseStudent(String line) {
+        int gradeComma = line.lastIndexOf(',');
+        int ageComma = line.lastIndexOf(',', gradeComma - 1);
+        if (ageComma < 0) {
+            throw new IllegalArgumentException("expected name,age,grade: " + line);
+        }
+        return new MultiFieldSort.Student(line.substring(0, ageComma),
+                Integer.parseInt(line.substring(ageComma + 1, gradeComma).trim()),
+                Double.parseDouble(line.substring(gradeComma + 1).trim()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("extsort");
+        Path in = dir.resolve("students.csv");
+        Path out = dir.resolve("sorted.csv");
+        int n = 2_000_000;
+        SplittableRandom random = new SplittableRandom(22);
+        List<MultiFieldSort.Student> students = new ArrayList<>(n);
+        try (BufferedWriter writer = Files.newBufferedWriter(in)) {
+            for (int i = 0; i < n; i++) {
+                MultiFieldSort.Student s = new MultiFieldSort.Student("name" + random.nextInt(100_000),
+                        18 + random.nextInt(50), random.nextInt(0, 1001) / 10.0);
+                students.add(s);
+                writer.write(s.getName() + "," + s.getAge() + "," + s.getGrade());
+                writer.newLine();
+            }
+        }
+
+        long t0 = System.nanoTime();
+        sortStudentCsv(in, out, 32 << 20);
+        long t1 = System.nanoTime();
+
+        ExternalMergeSort<MultiFieldSort.Student> sorter = new ExternalMergeSort<>(
+                MultiKeyComparator.STUDENT_ORDER, STUDENT_CODEC, 1 << 20, dir);
+        List<MultiFieldSort.Student> small = sorter.sortToList(students.iterator());
+
+        // the in-memory reference: MultiFieldSort's comparator chain
+        students.sort(Comparator.comparing(MultiFieldSort.Student::getAge)
+                .thenComparing(Comparator.comparingDouble(MultiFieldSort.Student::getGrade).reversed())
+                .thenComparing(MultiFieldSort.Student::getName));
+        List<String> sorted = Files.readAllLines(out);
+        boolean same = sorted.size() == n;
+        for (int i = 0; same && i < n; i++) {
+            MultiFieldSort.Student s = students.get(i);
+            same = sorted.get(i).equals(s.getName() + "," + s.getAge() + "," + s.getGrade());
+        }
+        System.out.printf("%,d students, 32MB budget: %.0f ms, same order as List.sort: %s%n", n, (t1 - t0) / 1e6, same);
+
+        boolean smallSame = small.size() == n;
+        for (int i = 0; smallSame && i < n; i++) {
+            smallSame = small.get(i).toString().equals(students.get(i).toString());
+        }
+        System.out.printf("1MB budget: %d runs, %d merge passes, same order: %s%n", sorter.lastRunCount(),
+                sorter.lastMergePasses(), smallSame);
+
+        Files.delete(in);
+        Files.delete(out);
+        Files.delete(dir);
+        /* timing varies
+        2,000,000 students, 32MB budget: 6133 ms, same order as List.sort: true
+        1MB budget: 279 runs, 3 merge passes, same order: true
+         */
+    }
+}
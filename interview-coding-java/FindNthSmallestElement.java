@@ -10,11 +10,16 @@ public class FindNthSmallestElement {
 
         List<Integer> num= List.of(2,45,56,1,5,68,9,9,20);
 
-        Optional<Integer> smallest= num.stream().sorted().limit(num.size()-1).findFirst();
+        //min/max need no sort at all
+        Optional<Integer> smallest= num.stream().min(Comparator.naturalOrder());
         System.out.println("Smallest Number :"+smallest.get());
 
-        Integer largest= num.stream().sorted(Comparator.reverseOrder()).limit(num.size()-1).findFirst().orElse(null);
+        Integer largest= num.stream().max(Comparator.naturalOrder()).orElse(null);
 
         System.out.println("Largest Number :"+largest);
+        /*
+        Smallest Number :1
+        Largest Number :68
+         */
     }
 }
@@ -0,0 +1,73 @@
+//Count-Min Sketch with 4-bit counters (16 per long), used by TinyLfuPolicy to estimate
+//how often a key was seen recently. Four rows, the estimate is the minimum counter.
+//Once the number of increments reaches 10x the capacity all counters are halved,
+//so old popularity fades out instead of saturating the sketch.
+public class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    public FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(16, capacity), Integer.MAX_VALUE);
+    }
+
+    //estimated frequency, 0..15
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = 15;
+        for (int row = 0; row < 4; row++) {
+            long h = rehash(hash, row);
+            int index = (int) (h >>> 32) & tableMask;
+            int offset = ((int) h & 15) << 2;
+            min = Math.min(min, (int) ((table[index] >>> offset) & 0xfL));
+        }
+        return min;
+    }
+
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            long h = rehash(hash, row);
+            int index = (int) (h >>> 32) & tableMask;
+            int offset = ((int) h & 15) << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    // halve every counter (aging)
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        h ^= h >>> 11;
+        return h;
+    }
+
+    private static long rehash(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return h ^ (h >>> 29);
+    }
+}
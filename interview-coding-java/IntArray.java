@@ -0,0 +1,223 @@
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+//Growable int list backed by a gap buffer: one int[] with a movable hole at the edit position.
+//Appends are amortized O(1), and a run of edits near the same spot only moves the gap once,
+//so k local inserts/deletes cost O(n + k) instead of the O(k*n) of copying a fresh array per edit
+//(see ArrayUtilsFull). Bulk operations (removeAll, removeIf, replaceAll, insertAll, removeRange)
+//do a single pass.
+public class IntArray {
+
+    private int[] buf;
+    private int gapStart;   // first free slot
+    private int gapEnd;     // first used slot after the gap
+
+    public IntArray() {
+        this(16);
+    }
+
+    public IntArray(int initialCapacity) {
+        this.buf = new int[Math.max(1, initialCapacity)];
+        this.gapStart = 0;
+        this.gapEnd = buf.length;
+    }
+
+    public static IntArray of(int... values) {
+        IntArray a = new IntArray(values.length + 16);
+        a.addAll(values);
+        return a;
+    }
+
+    public int size() {
+        return buf.length - (gapEnd - gapStart);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int get(int index) {
+        checkIndex(index, size());
+        return buf[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    public void set(int index, int value) {
+        checkIndex(index, size());
+        buf[index < gapStart ? index : index + gapEnd - gapStart] = value;
+    }
+
+    public void add(int value) {
+        insert(size(), value);
+    }
+
+    public void addAll(int... values) {
+        insertAll(size(), values);
+    }
+
+    //shifts everything from index on one to the right (nothing is dropped)
+    public void insert(int index, int value) {
+        checkIndex(index, size() + 1);
+        moveGap(index);
+        ensureGap(1);
+        buf[gapStart++] = value;
+    }
+
+    public void insertAll(int index, int... values) {
+        checkIndex(index, size() + 1);
+        moveGap(index);
+        ensureGap(values.length);
+        System.arraycopy(values, 0, buf, gapStart, values.length);
+        gapStart += values.length;
+    }
+
+    //binary search for the slot, then one gap move: O(log n) + distance from the last edit
+    public int insertSorted(int value) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (get(mid) < value) lo = mid + 1;
+            else hi = mid;
+        }
+        insert(lo, value);
+        return lo;
+    }
+
+    public int remove(int index) {
+        checkIndex(index, size());
+        moveGap(index + 1);
+        return buf[--gapStart];
+    }
+
+    //removes [from, to)
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") of " + size());
+        }
+        moveGap(to);
+        gapStart = from;
+    }
+
+    public int removeAll(int value) {
+        int n = size();
+        moveGap(n);
+        int w = 0;
+        for (int r = 0; r < n; r++) {
+            int v = buf[r];
+            buf[w] = v;
+            // branch-free: the write index only advances for kept values
+            w += v != value ? 1 : 0;
+        }
+        gapStart = w;
+        return n - w;
+    }
+
+    //single compaction pass; returns how many values were removed
+    public int removeIf(IntPredicate filter) {
+        int n = size();
+        moveGap(n);
+        int w = 0;
+        for (int r = 0; r < n; r++) {
+            int v = buf[r];
+            if (!filter.test(v)) {
+                buf[w++] = v;
+            }
+        }
+        gapStart = w;
+        return n - w;
+    }
+
+    public int replaceAll(int oldValue, int newValue) {
+        int replaced = 0;
+        for (int i = 0; i < gapStart; i++) {
+            if (buf[i] == oldValue) {
+                buf[i] = newValue;
+                replaced++;
+            }
+        }
+        for (int i = gapEnd; i < buf.length; i++) {
+            if (buf[i] == oldValue) {
+                buf[i] = newValue;
+                replaced++;
+            }
+        }
+        return replaced;
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < gapStart; i++) {
+            if (buf[i] == value) return i;
+        }
+        for (int i = gapEnd; i < buf.length; i++) {
+            if (buf[i] == value) return i - (gapEnd - gapStart);
+        }
+        return -1;
+    }
+
+    public void clear() {
+        gapStart = 0;
+        gapEnd = buf.length;
+    }
+
+    public int[] toArray() {
+        int[] out = new int[size()];
+        System.arraycopy(buf, 0, out, 0, gapStart);
+        System.arraycopy(buf, gapEnd, out, gapStart, buf.length - gapEnd);
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // slide the gap so that it starts at logical index pos; copies only the elements in between
+    private void moveGap(int pos) {
+        if (pos < gapStart) {
+            int count = gapStart - pos;
+            System.arraycopy(buf, pos, buf, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (pos > gapStart) {
+            int count = pos - gapStart;
+            System.arraycopy(buf, gapEnd, buf, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    // grow by doubling, keeping the gap where it is
+    private void ensureGap(int needed) {
+        int gap = gapEnd - gapStart;
+        if (gap >= needed) {
+            return;
+        }
+        int size = buf.length - gap;
+        int newLength = Math.max(buf.length * 2, size + needed);
+        int[] grown = new int[newLength];
+        int tail = buf.length - gapEnd;
+        System.arraycopy(buf, 0, grown, 0, gapStart);
+        System.arraycopy(buf, gapEnd, grown, newLength - tail, tail);
+        gapEnd = newLength - tail;
+        buf = grown;
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + bound);
+        }
+    }
+
+    public static void main(String[] args) {
+        // the ArrayUtilsFull edits on one mutable IntArray: no new array per edit
+        IntArray list = IntArray.of(1, 2, 4, 5);
+        list.insert(2, 3);
+        list.insertSorted(2);
+        list.removeAll(2);
+        list.add(6);
+        System.out.println("IntArray edits: " + list);
+        /*
+        IntArray edits: [1, 3, 4, 5, 6]
+         */
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.SplittableRandom;
+
+//k edits on an n-element array: ArrayUtilsFull (fresh array + full copy per edit) vs IntArray.
+//"local" edits stay within a small window around a moving cursor (typical editing/batch pattern),
+//"random" edits jump anywhere (worst case for the gap buffer, still no allocation per edit).
+//Best of 5 rounds after 3 warmup rounds:
+//  javac *.java && java IntArrayBenchmark [edits]
+public class IntArrayBenchmark {
+
+    interface Workload {
+        long run();
+    }
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int edits = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        System.out.printf("%-10s %-8s %-16s %14s%n", "n", "pattern", "impl", "us/edit");
+
+        for (int n : new int[]{10_000, 100_000, 1_000_000}) {
+            int[] base = new SplittableRandom(1).ints(n, 0, 100).toArray();
+            for (String pattern : new String[]{"local", "random"}) {
+                int[] positions = positions(pattern, n, edits);
+
+                report(n, pattern, "ArrayUtilsFull", edits, () -> {
+                    int[] arr = base;
+                    for (int i = 0; i < edits; i++) {
+                        // alternate insert/delete so the size stays around n
+                        arr = (i & 1) == 0
+                                ? ArrayUtilsFull.insertAtPosition(arr, positions[i], i)
+                                : ArrayUtilsFull.deleteAtIndex(arr, positions[i]);
+                    }
+                    return arr.length;
+                });
+
+                report(n, pattern, "IntArray", edits, () -> {
+                    IntArray arr = IntArray.of(base);
+                    for (int i = 0; i < edits; i++) {
+                        if ((i & 1) == 0) arr.insert(positions[i], i);
+                        else arr.remove(positions[i]);
+                    }
+                    return arr.size();
+                });
+            }
+
+            report(n, "bulk", "ArrayUtilsFull", 1, () -> ArrayUtilsFull.deleteAllOccurrences(base, 7).length);
+            report(n, "bulk", "IntArray", 1, () -> IntArray.of(base).removeAll(7));
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    // positions are valid for the alternating insert/delete sequence (size is n or n+1)
+    private static int[] positions(String pattern, int n, int edits) {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] pos = new int[edits];
+        int cursor = n / 2;
+        for (int i = 0; i < edits; i++) {
+            if (pattern.equals("local")) {
+                cursor = Math.max(0, Math.min(n - 1, cursor + random.nextInt(-8, 9)));
+                pos[i] = cursor;
+            } else {
+                pos[i] = random.nextInt(n);
+            }
+        }
+        return pos;
+    }
+
+    private static void report(int n, String pattern, String name, int edits, Workload workload) {
+        long best = Bench.best(3, 5, workload::run, result -> sink += result);
+        System.out.printf("%-10d %-8s %-16s %14.3f%n", n, pattern, name, best / 1000.0 / edits);
+    }
+}
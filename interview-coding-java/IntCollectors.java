@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+//groupingBy / counting / averaging collectors for int keys (age, year, ...) that never box the
+//key: groups live in an IntObjectMap, counters and sums in one long[] per distinct key, so the
+//per-element work is a probe into a primitive array. Drop-in for
+//  .collect(Collectors.groupingBy(Employee::getAge))  ->  .collect(IntCollectors.groupingByInt(Employee::getAge))
+//and call toMap() on the result where a Map<Integer, ...> is still needed.
+public final class IntCollectors {
+
+    private static final Set<Collector.Characteristics> NONE = Collections.emptySet();
+
+    private IntCollectors() {
+    }
+
+    //groups as ArrayLists straight into the map, without the downstream indirection
+    public static <T> Collector<T, ?, IntObjectMap<List<T>>> groupingByInt(ToIntFunction<? super T> key) {
+        return new IntCollector<T, IntObjectMap<List<T>>, IntObjectMap<List<T>>>(
+                IntObjectMap::new,
+                (map, t) -> map.computeIfAbsent(key.applyAsInt(t), k -> new ArrayList<>()).add(t),
+                (left, right) -> {
+                    left.merge(right, (a, b) -> {
+                        a.addAll(b);
+                        return a;
+                    });
+                    return left;
+                },
+                Function.identity());
+    }
+
+    public static <T, A, D> Collector<T, ?, IntObjectMap<D>> groupingByInt(ToIntFunction<? super T> key,
+                                                                         Collector<? super T, A, D> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        BinaryOperator<A> combiner = downstream.combiner();
+        Function<A, D> finisher = downstream.finisher();
+        boolean identityFinish = downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+        return new IntCollector<T, IntObjectMap<A>, IntObjectMap<D>>(
+                IntObjectMap::new,
+                (map, t) -> accumulateUnchecked(accumulator, map.computeIfAbsent(key.applyAsInt(t), k -> supplier.get()), t),
+                (left, right) -> {
+                    left.merge(right, combiner);
+                    return left;
+                },
+                map -> identityFinish ? castUnchecked(map) : map.mapValuesInPlace(finisher));
+    }
+
+    //key -> number of elements; the count lives in a long[1] per key, boxed only once in the finisher
+    public static <T> Collector<T, ?, IntObjectMap<Long>> countingByInt(ToIntFunction<? super T> key) {
+        return new IntCollector<T, IntObjectMap<long[]>, IntObjectMap<Long>>(
+                IntObjectMap::new,
+                (map, t) -> map.computeIfAbsent(key.applyAsInt(t), k -> new long[1])[0]++,
+                (left, right) -> {
+                    left.merge(right, (a, b) -> {
+                        a[0] += b[0];
+                        return a;
+                    });
+                    return left;
+                },
+                map -> map.mapValuesInPlace(c -> c[0]));
+    }
+
+    //key -> average of value over the key's elements (count and sum kept as longs, no rounding until the end)
+    public static <T> Collector<T, ?, IntObjectMap<Double>> averagingByInt(ToIntFunction<? super T> key,
+                                                                        ToIntFunction<? super T> value) {
+        return new IntCollector<T, IntObjectMap<long[]>, IntObjectMap<Double>>(
+                IntObjectMap::new,
+                (map, t) -> {
+                    long[] acc = map.computeIfAbsent(key.applyAsInt(t), k -> new long[2]);
+                    acc[0]++;
+                    acc[1] += value.applyAsInt(t);
+                },
+                (left, right) -> {
+                    left.merge(right, (a, b) -> {
+                        a[0] += b[0];
+                        a[1] += b[1];
+                        return a;
+                    });
+                    return left;
+                },
+                map -> map.mapValuesInPlace(acc -> (double) acc[1] / acc[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, T> void accumulateUnchecked(BiConsumer<A, ? super T> accumulator, A container, T t) {
+        ((BiConsumer<A, T>) accumulator).accept(container, t);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R castUnchecked(Object o) {
+        return (R) o;
+    }
+
+    private record IntCollector<T, A, R>(Supplier<A> supplier,
+                                         BiConsumer<A, T> accumulator,
+                                         BinaryOperator<A> combiner,
+                                         Function<A, R> finisher) implements Collector<T, A, R> {
+        @Override
+        public Set<Characteristics> characteristics() {
+            return NONE;
+        }
+    }
+
+    public static void main(String[] args) {
+        List<EmployeeGrouping.Employee> employees = List.of(
+                new EmployeeGrouping.Employee("Alice", 25),
+                new EmployeeGrouping.Employee("Bob", 30),
+                new EmployeeGrouping.Employee("Charlie", 25),
+                new EmployeeGrouping.Employee("David", 30),
+                new EmployeeGrouping.Employee("Eve", 35),
+                new EmployeeGrouping.Employee("Frank", 25)
+        );
+        System.out.println("groupingByInt: " + employees.stream().collect(groupingByInt(EmployeeGrouping.Employee::getAge)));
+        System.out.println("countingByInt: " + employees.parallelStream().collect(countingByInt(EmployeeGrouping.Employee::getAge)));
+        System.out.println("averagingByInt: " + employees.stream().collect(
+                averagingByInt(e -> e.getAge() / 10 * 10, EmployeeGrouping.Employee::getAge)));
+        System.out.println("downstream joining: " + employees.stream().collect(groupingByInt(EmployeeGrouping.Employee::getAge,
+                Collectors.mapping(Object::toString, Collectors.joining("|")))));
+        /*
+        groupingByInt: {25=[Alice, Charlie, Frank], 30=[Bob, David], 35=[Eve]}
+        countingByInt: {25=3, 30=2, 35=1}
+        averagingByInt: {20=25.0, 30=31.666666666666668}
+        downstream joining: {25=Alice|Charlie|Frank, 30=Bob|David, 35=Eve}
+         */
+    }
+}
@@ -0,0 +1,73 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+//Boxed Collectors.groupingBy / counting / averagingInt vs IntCollectors on a 5M employee roster.
+//No JMH here, so besides best-of-N time it reads the current thread's allocated bytes from
+//com.sun.management.ThreadMXBean (what the JMH gc profiler reports as gc.alloc.rate.norm).
+//Sequential streams only, so all allocation happens on the measuring thread.
+//  javac *.java && java IntCollectorsBenchmark [employees]
+public class IntCollectorsBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Object sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        SplittableRandom random = new SplittableRandom(3);
+        List<EmployeeGrouping.Employee> employees = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // ages 18..67: the boxed keys all come from the Integer cache
+            employees.add(new EmployeeGrouping.Employee("e" + i, 18 + random.nextInt(50)));
+        }
+        List<EmployeeGrouping.Employee> wide = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // e.g. grouping by year of birth or department id: keys outside the Integer cache
+            wide.add(new EmployeeGrouping.Employee("e" + i, 1900 + random.nextInt(120)));
+        }
+
+        System.out.printf("%,d employees%n", n);
+        System.out.printf("%-30s %10s %14s%n", "collector", "ms", "bytes/element");
+        report("groupingBy(age)", n, () -> employees.stream().collect(
+                Collectors.groupingBy(EmployeeGrouping.Employee::getAge)));
+        report("groupingByInt(age)", n, () -> employees.stream().collect(
+                IntCollectors.groupingByInt(EmployeeGrouping.Employee::getAge)));
+        report("groupingBy(age, counting)", n, () -> employees.stream().collect(
+                Collectors.groupingBy(EmployeeGrouping.Employee::getAge, Collectors.counting())));
+        report("countingByInt(age)", n, () -> employees.stream().collect(
+                IntCollectors.countingByInt(EmployeeGrouping.Employee::getAge)));
+        report("groupingBy(year, counting)", n, () -> wide.stream().collect(
+                Collectors.groupingBy(EmployeeGrouping.Employee::getAge, Collectors.counting())));
+        report("countingByInt(year)", n, () -> wide.stream().collect(
+                IntCollectors.countingByInt(EmployeeGrouping.Employee::getAge)));
+        report("groupingBy(year, averagingInt)", n, () -> wide.stream().collect(
+                Collectors.groupingBy(EmployeeGrouping.Employee::getAge,
+                        Collectors.averagingInt(EmployeeGrouping.Employee::getAge))));
+        report("averagingByInt(year)", n, () -> wide.stream().collect(
+                IntCollectors.averagingByInt(EmployeeGrouping.Employee::getAge, EmployeeGrouping.Employee::getAge)));
+    }
+
+    private static void report(String name, int n, Supplier<Object> run) {
+        long best = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        long thread = Thread.currentThread().getId();
+        for (int r = 0; r < ROUNDS + 2; r++) {
+            long allocated = THREADS.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            sink = run.get();
+            long elapsed = System.nanoTime() - t0;
+            allocated = THREADS.getThreadAllocatedBytes(thread) - allocated;
+            if (r >= 2) {
+                best = Math.min(best, elapsed);
+                bytes = Math.min(bytes, allocated);
+            }
+        }
+        System.out.printf("%-30s %10.1f %14.2f%n", name, best / 1e6, (double) bytes / n);
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+//LRU cache for int keys / int values: no boxing, no per-entry objects.
+//Entries live in parallel arrays, recency links are slot indexes and the key index
+//is an open-addressing (linear probing) table of slot numbers.
+public class IntLRUCatch {
+
+    public interface EvictionListener {
+        void onEvict(int key, int value);
+    }
+
+    private static final int EMPTY = -1;
+
+    private final int cap;
+    private final int[] keys;
+    private final int[] values;
+    private final int[] prev;
+    private final int[] next;
+    private final int sentinel;      // slot cap: prev = MRU, next = LRU
+    private final int[] table;       // slot number or EMPTY
+    private final int mask;
+    private final EvictionListener onEvict;
+    private final LinearProbing.Table index = new LinearProbing.Table() {
+        @Override
+        public int home(int i) {
+            int slot = table[i];
+            return slot == EMPTY ? -1 : LinearProbing.mix(keys[slot]) & mask;
+        }
+
+        @Override
+        public void move(int from, int to) {
+            table[to] = table[from];
+        }
+
+        @Override
+        public void clear(int i) {
+            table[i] = EMPTY;
+        }
+    };
+
+    private int size;
+
+    public IntLRUCatch(int cap) {
+        this(cap, null);
+    }
+
+    public IntLRUCatch(int cap, EvictionListener onEvict) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + cap);
+        }
+        this.cap = cap;
+        this.onEvict = onEvict;
+        this.keys = new int[cap];
+        this.values = new int[cap];
+        this.prev = new int[cap + 1];
+        this.next = new int[cap + 1];
+        this.sentinel = cap;
+        prev[sentinel] = sentinel;
+        next[sentinel] = sentinel;
+
+        // load factor <= 0.5 keeps probe sequences short
+        int tableSize = Integer.highestOneBit(Math.max(2, cap) * 2 - 1) << 1;
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(table, EMPTY);
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    //returns missing when the key is not cached; there is no get(key), since every int is a valid value
+    public int get(int key, int missing) {
+        int pos = find(key);
+        if (pos < 0) {
+            return missing;
+        }
+        int slot = table[pos];
+        moveToTail(slot);
+        return values[slot];
+    }
+
+    public void put(int key, int value) {
+        int pos = find(key);
+        if (pos >= 0) {
+            int slot = table[pos];
+            values[slot] = value;
+            moveToTail(slot);
+            return;
+        }
+
+        int slot;
+        if (size == cap) {
+            // reuse the evicted slot for the new entry
+            slot = next[sentinel];
+            int oldKey = keys[slot];
+            int oldValue = values[slot];
+            deleteAt(find(oldKey));
+            unlink(slot);
+            size--;
+            if (onEvict != null) {
+                onEvict.onEvict(oldKey, oldValue);
+            }
+        } else {
+            slot = size;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        int i = LinearProbing.mix(key) & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = slot;
+        linkLast(slot);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return cap;
+    }
+
+    // position in table, or -1
+    private int find(int key) {
+        int i = LinearProbing.mix(key) & mask;
+        int slot;
+        while ((slot = table[i]) != EMPTY) {
+            if (keys[slot] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void deleteAt(int hole) {
+        LinearProbing.deleteAt(index, hole, mask);
+    }
+
+    private void moveToTail(int slot) {
+        if (prev[sentinel] != slot) {
+            unlink(slot);
+            linkLast(slot);
+        }
+    }
+
+    private void linkLast(int slot) {
+        int last = prev[sentinel];
+        prev[slot] = last;
+        next[slot] = sentinel;
+        next[last] = slot;
+        prev[sentinel] = slot;
+    }
+
+    private void unlink(int slot) {
+        next[prev[slot]] = next[slot];
+        prev[next[slot]] = prev[slot];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int s = next[sentinel]; s != sentinel; s = next[s]) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(keys[s]).append('=').append(values[s]);
+        }
+        return sb.append(']').toString();
+    }
+}
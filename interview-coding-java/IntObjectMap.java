@@ -0,0 +1,231 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+//int -> V hash map without boxed keys: open addressing (linear probing) over an int key array,
+//values in a parallel Object array (null marks a free slot, so values must not be null).
+//Keys 0..127 (ages, small codes) skip hashing and sit in a dense array indexed by the key.
+//Same layout as DailyTotalsMap; used by IntCollectors as the grouping container.
+public class IntObjectMap<V> {
+
+    public interface Entry<V> {
+        void accept(int key, V value);
+    }
+
+    private static final int DENSE = 128;
+
+    private final Object[] dense = new Object[DENSE];
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int hashedSize;
+
+    public IntObjectMap() {
+        this(16);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key >= 0 && key < DENSE) {
+            return (V) dense[key];
+        }
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null values are not supported");
+        }
+        if (key >= 0 && key < DENSE) {
+            V old = (V) dense[key];
+            dense[key] = value;
+            if (old == null) size++;
+            return old;
+        }
+        int i = slotFor(key);
+        V old = (V) values[i];
+        values[i] = value;
+        if (old == null) {
+            size++;
+            hashedSize++;
+            growIfNeeded();
+        }
+        return old;
+    }
+
+    //one probe sequence for lookup and insert
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, IntFunction<? extends V> create) {
+        if (key >= 0 && key < DENSE) {
+            Object value = dense[key];
+            if (value == null) {
+                value = create.apply(key);
+                dense[key] = value;
+                size++;
+            }
+            return (V) value;
+        }
+        int i = slotFor(key);
+        if (values[i] == null) {
+            V value = create.apply(key);
+            values[i] = value;
+            size++;
+            hashedSize++;
+            growIfNeeded();
+            return value;
+        }
+        return (V) values[i];
+    }
+
+    //fold other in; values present in both are combined as combine(this, other)
+    @SuppressWarnings("unchecked")
+    public void merge(IntObjectMap<V> other, BinaryOperator<V> combine) {
+        for (int key = 0; key < DENSE; key++) {
+            if (other.dense[key] != null) {
+                if (dense[key] == null) {
+                    dense[key] = other.dense[key];
+                    size++;
+                } else {
+                    dense[key] = combine.apply((V) dense[key], (V) other.dense[key]);
+                }
+            }
+        }
+        for (int j = 0; j < other.keys.length; j++) {
+            if (other.values[j] != null) {
+                int i = slotFor(other.keys[j]);
+                if (values[i] == null) {
+                    values[i] = other.values[j];
+                    size++;
+                    hashedSize++;
+                    growIfNeeded();
+                } else {
+                    values[i] = combine.apply((V) values[i], (V) other.values[j]);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //keys in ascending order
+    public int[] sortedKeys() {
+        int[] out = new int[size];
+        int j = 0;
+        for (int key = 0; key < DENSE; key++) {
+            if (dense[key] != null) out[j++] = key;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) out[j++] = keys[i];
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    //slot order, no sorting
+    @SuppressWarnings("unchecked")
+    public void forEach(Entry<? super V> action) {
+        for (int key = 0; key < DENSE; key++) {
+            if (dense[key] != null) action.accept(key, (V) dense[key]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    //ascending by key
+    @SuppressWarnings("unchecked")
+    public void forEachSorted(Entry<? super V> action) {
+        for (int key : sortedKeys()) {
+            action.accept(key, get(key));
+        }
+    }
+
+    //replace every value in place, e.g. a collector's finisher turning containers into results
+    @SuppressWarnings("unchecked")
+    <R> IntObjectMap<R> mapValuesInPlace(Function<? super V, ? extends R> f) {
+        for (int key = 0; key < DENSE; key++) {
+            if (dense[key] != null) dense[key] = f.apply((V) dense[key]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) values[i] = f.apply((V) values[i]);
+        }
+        return (IntObjectMap<R>) this;
+    }
+
+    //boxed copy in ascending key order, for code that wants a java.util.Map
+    public Map<Integer, V> toMap() {
+        Map<Integer, V> out = new LinkedHashMap<>(size * 2);
+        forEachSorted(out::put);
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    // index of the key's slot, or of the free slot where it would go
+    private int slotFor(int key) {
+        int i = LinearProbing.mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        return i;
+    }
+
+    private int indexOf(int key) {
+        int i = LinearProbing.mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void growIfNeeded() {
+        if (hashedSize * 2 <= keys.length) {
+            return;
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = LinearProbing.mix(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -1,65 +1,578 @@
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
 
-public class LRUCatch {
+//Not thread-safe; use ConcurrentLRUCatch when several threads share a cache.
+//Which entry goes when the cache is full is decided by an EvictionPolicy (LRU by default).
+//Built on other classes of this folder, so run the demo with: javac *.java && java LRUCatch
+public class LRUCatch<K, V> {
 
-    private int cap;
-    private static LinkedList<Integer> link;
+    // Entry node; prev/next/owner belong to the eviction policy, which links nodes into its own lists
+    static final class Node<K, V> {
+        final K key;
+        V value;
+        Node<K, V> prev;
+        Node<K, V> next;
+        NodeList<K, V> owner;
+
+        // expiry / refresh state, only used when the cache has TTLs or a refresh loader
+        long writeTime;
+        long expiresAt;
+        Node<K, V> timerPrev;
+        Node<K, V> timerNext;
+        boolean refreshing;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // Intrusive doubly-linked list with a sentinel: first() is the eldest, last() the newest
+    static class NodeList<K, V> {
+        private final Node<K, V> head = new Node<>(null, null);
+        private int size;
+
+        NodeList() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        Node<K, V> first() {
+            return head.next == head ? null : head.next;
+        }
+
+        Node<K, V> last() {
+            return head.prev == head ? null : head.prev;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void linkLast(Node<K, V> node) {
+            Node<K, V> last = head.prev;
+            node.prev = last;
+            node.next = head;
+            last.next = node;
+            head.prev = node;
+            node.owner = this;
+            size++;
+        }
+
+        void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.owner = null;
+            size--;
+        }
+
+        void moveToTail(Node<K, V> node) {
+            if (node != head.prev) {
+                unlink(node);
+                linkLast(node);
+            }
+        }
+
+        void forEach(java.util.function.Consumer<Node<K, V>> action) {
+            for (Node<K, V> n = head.next; n != head; n = n.next) {
+                action.accept(n);
+            }
+        }
+    }
+
+    private final int cap;
+    private final Map<K, Node<K, V>> index;
+    private final BiConsumer<? super K, ? super V> onEvict;
+    private final IntFunction<? extends EvictionPolicy<K, V>> policyFactory;
+    private EvictionPolicy<K, V> policy;
+
+    // expiry / refresh, all disabled (0) unless configured through the Builder
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private final Function<? super K, ? extends V> loader;
+    private final Executor refreshExecutor;
+    private final LongSupplier ticker;
+    private final TimerWheel<K, V> wheel;
+    // reloads finished on the executor, applied by the owner thread on its next call
+    private final Queue<Runnable> completedRefreshes = new ConcurrentLinkedQueue<>();
+    // null unless built with recordStats()
+    private final CacheStats stats;
 
     public LRUCatch(int cap) {
-        this.cap = cap;
-        this.link=new LinkedList<>();
+        this(cap, LruPolicy::new, null);
+    }
+
+    public LRUCatch(int cap, BiConsumer<? super K, ? super V> onEvict) {
+        this(cap, LruPolicy::new, onEvict);
+    }
+
+    public LRUCatch(int cap, IntFunction<? extends EvictionPolicy<K, V>> policyFactory) {
+        this(cap, policyFactory, null);
+    }
+
+    public LRUCatch(int cap, IntFunction<? extends EvictionPolicy<K, V>> policyFactory,
+                    BiConsumer<? super K, ? super V> onEvict) {
+        this(newBuilder(cap, policyFactory, onEvict));
+    }
+
+    private LRUCatch(Builder<K, V> b) {
+        if (b.cap <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + b.cap);
+        }
+        if (b.refreshAfterWriteNanos > 0 && b.loader == null) {
+            throw new IllegalArgumentException("refreshAfterWrite needs a loader");
+        }
+        this.cap = b.cap;
+        this.onEvict = b.onEvict;
+        this.policyFactory = b.policyFactory;
+        this.policy = policyFactory.apply(cap);
+        this.index = new HashMap<>(Math.max(16, (int) (cap / 0.75f) + 1));
+        this.expireAfterWriteNanos = b.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = b.expireAfterAccessNanos;
+        this.refreshAfterWriteNanos = b.refreshAfterWriteNanos;
+        this.loader = b.loader;
+        this.refreshExecutor = b.refreshExecutor;
+        this.ticker = b.ticker;
+        this.wheel = expires() ? new TimerWheel<>(ticker.getAsLong()) : null;
+        this.stats = b.stats;
+    }
+
+    public static <K, V> Builder<K, V> newBuilder(int cap) {
+        return new Builder<>(cap);
+    }
+
+    private static <K, V> Builder<K, V> newBuilder(int cap, IntFunction<? extends EvictionPolicy<K, V>> policyFactory,
+                                                   BiConsumer<? super K, ? super V> onEvict) {
+        return new Builder<K, V>(cap).policy(policyFactory).onEvict(onEvict);
+    }
+
+    //O(1): hash lookup + policy bookkeeping (+ timer wheel tick when expiry is on)
+    public V get(K key) {
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    //like get, but a miss is filled from loader (blocking the caller only for that key)
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Node<K, V> node = getNode(key);
+        if (node != null) {
+            return node.value;
+        }
+        V value = load(loader, key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    // null or an exception counts as a failed load
+    private V load(Function<? super K, ? extends V> loader, K key) {
+        if (stats == null) {
+            return loader.apply(key);
+        }
+        long start = System.nanoTime();
+        V value = null;
+        try {
+            value = loader.apply(key);
+            return value;
+        } finally {
+            stats.recordLoad(System.nanoTime() - start, value != null);
+        }
+    }
+
+    private Node<K, V> getNode(K key) {
+        long now = 0;
+        if (wheel != null || refreshAfterWriteNanos > 0) {
+            now = ticker.getAsLong();
+            maintain(now);
+        }
+        Node<K, V> node = index.get(key);
+        if (node == null) {
+            if (stats != null) stats.recordMiss();
+            return null;
+        }
+        if (wheel != null && node.expiresAt - now <= 0) {
+            expire(node);
+            if (stats != null) stats.recordMiss();
+            return null;
+        }
+        if (stats != null) stats.recordHit();
+        policy.onAccess(node);
+        if (expireAfterAccessNanos > 0) {
+            setExpiry(node, now);
+        }
+        if (refreshAfterWriteNanos > 0 && !node.refreshing && now - node.writeTime >= refreshAfterWriteNanos) {
+            refreshAsync(node);
+        }
+        return node;
+    }
+
+    //O(1): returns the previous value for key, or null.
+    //The new entry is offered to the policy first, so an admission policy may reject it right away.
+    public V put(K key, V value) {
+        long now = 0;
+        if (wheel != null || refreshAfterWriteNanos > 0) {
+            now = ticker.getAsLong();
+            maintain(now);
+        }
+        Node<K, V> node = index.get(key);
+        if (node != null) {
+            V old = node.value;
+            node.value = value;
+            node.writeTime = now;
+            policy.onAccess(node);
+            setExpiry(node, now);
+            return old;
+        }
+
+        node = new Node<>(key, value);
+        node.writeTime = now;
+        index.put(key, node);
+        policy.onInsert(node);
+        setExpiry(node, now);
+        if (stats != null) stats.recordInsert();
+
+        if (index.size() > cap) {
+            evict(policy.evict());
+        }
+        return null;
+    }
+
+    public V remove(K key) {
+        Node<K, V> node = index.remove(key);
+        if (node == null) {
+            return null;
+        }
+        policy.onRemove(node);
+        if (wheel != null) {
+            wheel.deschedule(node);
+        }
+        if (stats != null) stats.recordRemoval();
+        return node.value;
+    }
+
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
     }
 
-    private void put(int value){
+    //includes entries that expired but were not swept yet
+    public int size() {
+        return index.size();
+    }
 
-        link.remove((Integer) value);
+    public int capacity() {
+        return cap;
+    }
+
+    //null unless the cache was built with recordStats()
+    public CacheStats stats() {
+        return stats;
+    }
 
-        if(link.size()== cap){
-            link.removeFirst();
+    public String policyName() {
+        return policy.name();
+    }
+
+    public void clear() {
+        if (wheel != null) {
+            index.values().forEach(wheel::deschedule);
         }
+        if (stats != null) stats.recordRemovals(index.size());
+        index.clear();
+        policy = policyFactory.apply(cap);
+    }
 
-        link.addLast(value);
-        System.out.println("Cache : " + link);
+    //apply finished refreshes and sweep expired entries without waiting for the next get/put
+    public void cleanUp() {
+        if (wheel != null || refreshAfterWriteNanos > 0) {
+            maintain(ticker.getAsLong());
+        }
     }
 
-    private int get (int index){
+    private boolean expires() {
+        return expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0;
+    }
 
-        int newvalue=link.get(index);
-        link.remove((Integer) newvalue);
-      //  link.removeFirst();
-        link.addLast(newvalue);
+    private void maintain(long now) {
+        Runnable refresh;
+        while ((refresh = completedRefreshes.poll()) != null) {
+            refresh.run();
+        }
+        if (wheel != null) {
+            wheel.advance(now, this::expire);
+        }
+    }
 
-        return newvalue;
+    // deadline = earliest of write + TTL and last access + TTL
+    private void setExpiry(Node<K, V> node, long now) {
+        if (wheel == null) {
+            return;
+        }
+        long deadline = Long.MAX_VALUE;
+        if (expireAfterWriteNanos > 0) {
+            deadline = node.writeTime + expireAfterWriteNanos;
+        }
+        if (expireAfterAccessNanos > 0) {
+            deadline = Math.min(deadline, now + expireAfterAccessNanos);
+        }
+        node.expiresAt = deadline;
+        wheel.schedule(node);
+    }
+
+    // the loader runs on the executor; only the result hand-off touches this (single-threaded) cache
+    private void refreshAsync(Node<K, V> node) {
+        node.refreshing = true;
+        K key = node.key;
+        try {
+            refreshExecutor.execute(() -> {
+                V fresh = null;
+                try {
+                    fresh = load(loader, key);
+                } catch (RuntimeException failed) {
+                    // keep serving the old value; the failure is in the load stats and the next
+                    // read past refreshAfterWrite tries again. Not rethrown, so a direct executor
+                    // does not mistake it for a rejection and a pool thread does not log it.
+                } finally {
+                    V value = fresh;
+                    long loadedAt = ticker.getAsLong();
+                    completedRefreshes.add(() -> completeRefresh(node, value, loadedAt));
+                }
+            });
+        } catch (RejectedExecutionException rejected) {
+            node.refreshing = false;
+        }
+    }
+
+    private void completeRefresh(Node<K, V> node, V value, long loadedAt) {
+        node.refreshing = false;
+        // drop the result if the entry was removed/replaced meanwhile or the loader failed
+        if (value != null && index.get(node.key) == node) {
+            node.value = value;
+            node.writeTime = loadedAt;
+            setExpiry(node, loadedAt);
+        }
+    }
+
+    private void expire(Node<K, V> node) {
+        index.remove(node.key);
+        policy.onRemove(node);
+        wheel.deschedule(node);
+        if (stats != null) stats.recordExpiration();
+        if (onEvict != null) {
+            onEvict.accept(node.key, node.value);
+        }
+    }
+
+    private void evict(Node<K, V> victim) {
+        index.remove(victim.key);
+        if (wheel != null) {
+            wheel.deschedule(victim);
+        }
+        if (stats != null) stats.recordEviction();
+        if (onEvict != null) {
+            onEvict.accept(victim.key, victim.value);
+        }
+    }
+
+    public static final class Builder<K, V> {
+        private final int cap;
+        private IntFunction<? extends EvictionPolicy<K, V>> policyFactory = LruPolicy::new;
+        private BiConsumer<? super K, ? super V> onEvict;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private long refreshAfterWriteNanos;
+        private Function<? super K, ? extends V> loader;
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+        private LongSupplier ticker = System::nanoTime;
+        private CacheStats stats;
+
+        private Builder(int cap) {
+            this.cap = cap;
+        }
+
+        public Builder<K, V> policy(IntFunction<? extends EvictionPolicy<K, V>> policyFactory) {
+            this.policyFactory = policyFactory;
+            return this;
+        }
+
+        //called for entries dropped by capacity or expiry, not for remove()
+        public Builder<K, V> onEvict(BiConsumer<? super K, ? super V> onEvict) {
+            this.onEvict = onEvict;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration ttl) {
+            this.expireAfterWriteNanos = ttl.toNanos();
+            return this;
+        }
+
+        public Builder<K, V> expireAfterAccess(Duration ttl) {
+            this.expireAfterAccessNanos = ttl.toNanos();
+            return this;
+        }
+
+        //entries read after this age are reloaded in the background; callers keep getting the old value meanwhile
+        public Builder<K, V> refreshAfterWrite(Duration age, Function<? super K, ? extends V> loader) {
+            this.refreshAfterWriteNanos = age.toNanos();
+            this.loader = loader;
+            return this;
+        }
+
+        public Builder<K, V> refreshExecutor(Executor executor) {
+            this.refreshExecutor = executor;
+            return this;
+        }
+
+        //time source in nanoseconds, System::nanoTime unless replaced (e.g. by a fake clock)
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        //count hits, misses, evictions and load times (see stats())
+        public Builder<K, V> recordStats() {
+            return recordStats(new CacheStats());
+        }
+
+        //record into an existing CacheStats, e.g. one shared by several caches
+        public Builder<K, V> recordStats(CacheStats stats) {
+            this.stats = stats;
+            return this;
+        }
+
+        int capacity() {
+            return cap;
+        }
+
+        Builder<K, V> copyWithCapacity(int newCap) {
+            Builder<K, V> b = new Builder<>(newCap);
+            b.policyFactory = policyFactory;
+            b.onEvict = onEvict;
+            b.expireAfterWriteNanos = expireAfterWriteNanos;
+            b.expireAfterAccessNanos = expireAfterAccessNanos;
+            b.refreshAfterWriteNanos = refreshAfterWriteNanos;
+            b.loader = loader;
+            b.refreshExecutor = refreshExecutor;
+            b.ticker = ticker;
+            b.stats = stats;
+            return b;
+        }
+
+        public LRUCatch<K, V> build() {
+            return new LRUCatch<>(this);
+        }
+    }
+
+    // eviction order (next victim first), only built when somebody asks for it
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        policy.forEach(n -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(n.key).append('=').append(n.value);
+        });
+        return sb.append(']').toString();
     }
 
-   /* private static void display(){
-        System.out.println("final list"+this.link);
-    }*/
     public static void main(String[] args) {
 
         Scanner sc=new Scanner(System.in);
         System.out.print("Enter the size of link");
         int n= sc.nextInt();
-        LRUCatch cache=new LRUCatch(n);
+        LRUCatch<Integer, Integer> cache=new LRUCatch<>(n,
+                (k, v) -> System.out.println("evicted : " + k));
 
+        for (int i = 1; i <= 6; i++) {
+            cache.put(i, i);
+            System.out.println("Cache : " + cache);
+        }
 
-       /* for(int i=0;i<n;i++){
-         //cache[i]=sc.nextInt();
-            int value=sc.nextInt();
-            cache.put(value);
-        }*/
-      //  display();
-       cache.put(1);
-        cache.put(2);
-        cache.put(3);
-        cache.put(4);
-        cache.put(5);
-        cache.put(6);
+        cache.get(4);
+        System.out.println("finall Cache : " + cache);
 
-        cache.get(1);
-        System.out.println("finall Cache : " + link);
-    }
+        // int keys without boxing
+        IntLRUCatch ints = new IntLRUCatch(n);
+        for (int i = 1; i <= 6; i++) {
+            ints.put(i, i * 10);
+        }
+        ints.get(4, -1);
+        System.out.println("int Cache : " + ints);
+
+        // same trace, frequency aware policy
+        LRUCatch<Integer, Integer> lfu = new LRUCatch<>(n, LfuPolicy::new);
+        for (int i = 1; i <= 6; i++) {
+            lfu.put(i, i);
+            lfu.get(1);
+        }
+        System.out.println(lfu.policyName() + " Cache : " + lfu);
+
+        // a full LFU cache must still take a new key: it displaces the least used old one
+        LRUCatch<Integer, Integer> admit = new LRUCatch<>(2, LfuPolicy::new);
+        admit.put(1, 1);
+        admit.put(2, 2);
+        admit.get(1);
+        admit.get(2);
+        admit.get(2);
+        admit.put(3, 3);
+        if (!admit.containsKey(3)) {
+            throw new AssertionError("LFU rejected the new key: " + admit);
+        }
+        System.out.println("LFU admits new key : " + admit);
+
+        // TTL + refresh-ahead on a fake clock (1 tick = 1 second)
+        AtomicLong clock = new AtomicLong();
+        LRUCatch<String, String> ttl = LRUCatch.<String, String>newBuilder(n)
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .refreshAfterWrite(Duration.ofSeconds(5), k -> k + "@" + clock.get() / 1_000_000_000L)
+                .refreshExecutor(Runnable::run)
+                .ticker(clock::get)
+                .build();
+        ttl.put("hot", "hot@0");
+        ttl.put("cold", "cold@0");
+        clock.set(Duration.ofSeconds(6).toNanos());
+        System.out.println("t=6  hot  : " + ttl.get("hot") + " (refresh triggered)");
+        clock.set(Duration.ofSeconds(12).toNanos());
+        System.out.println("t=12 hot  : " + ttl.get("hot"));
+        System.out.println("t=12 cold : " + ttl.get("cold"));
 
+        // counters are only read here, the access path just bumps LongAdders
+        LRUCatch<Integer, String> counted = LRUCatch.<Integer, String>newBuilder(n).recordStats().build();
+        for (int i = 0; i < 10; i++) {
+            counted.get(i % 5, k -> "v" + k);
+        }
+        counted.stats().registerMBean("demo");
+        System.out.println("stats : " + counted.stats().snapshot());
 
+        /*
+        Enter the size of link 3
+        ...
+        finall Cache : [5=5, 6=6, 4=4]
+        int Cache : [5=50, 6=60, 4=40]
+        LFU Cache : [5=5, 6=6, 1=1]
+        LFU admits new key : [3=3, 2=2]
+        t=6  hot  : hot@0 (refresh triggered)
+        t=12 hot  : hot@6
+        t=12 cold : null
+        stats : hits=0 misses=10 hitRate=0.000 evictions=7 expired=0 loads=10/10 ... weight=3
+         */
+    }
 }
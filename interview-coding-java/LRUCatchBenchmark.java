@@ -0,0 +1,91 @@
+import java.util.LinkedList;
+import java.util.SplittableRandom;
+
+//Compares the old LinkedList based LRUCatch against the O(1) LRUCatch / IntLRUCatch, best of 5
+//rounds after 3 warmup rounds:
+//  javac *.java && java LRUCatchBenchmark          (10k .. 10M entries)
+//  javac *.java && java LRUCatchBenchmark 100000   (single size)
+public class LRUCatchBenchmark {
+
+    // the previous implementation: remove((Integer) value) walks the whole list
+    static class LinkedListLRU {
+        private final int cap;
+        private final LinkedList<Integer> link = new LinkedList<>();
+
+        LinkedListLRU(int cap) {
+            this.cap = cap;
+        }
+
+        void put(int value) {
+            link.remove((Integer) value);
+            if (link.size() == cap) {
+                link.removeFirst();
+            }
+            link.addLast(value);
+        }
+
+        boolean get(int value) {
+            if (!link.remove((Integer) value)) {
+                return false;
+            }
+            link.addLast(value);
+            return true;
+        }
+    }
+
+    interface Workload {
+        void run(int[] keys);
+    }
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? new int[]{Integer.parseInt(args[0])}
+                : new int[]{10_000, 100_000, 1_000_000, 10_000_000};
+
+        System.out.printf("%-12s %-14s %12s%n", "entries", "impl", "ns/op");
+        for (int size : sizes) {
+            // keys drawn from 2x the capacity -> roughly 50% hit rate, every miss evicts
+            int[] keys = new SplittableRandom(42).ints(2_000_000, 0, size * 2).toArray();
+
+            LRUCatch<Integer, Integer> generic = new LRUCatch<>(size);
+            report(size, "LRUCatch", keys, k -> {
+                for (int key : k) {
+                    Integer v = generic.get(key);
+                    if (v == null) generic.put(key, key);
+                    else sink += v;
+                }
+            });
+
+            IntLRUCatch ints = new IntLRUCatch(size);
+            report(size, "IntLRUCatch", keys, k -> {
+                for (int key : k) {
+                    int v = ints.get(key, -1);
+                    if (v < 0) ints.put(key, key);
+                    else sink += v;
+                }
+            });
+
+            // the list scan is O(n) per op, so only run enough ops to get a stable number
+            int ops = (int) Math.max(200, Math.min(keys.length, 2_000_000_000L / size / 50));
+            int[] fewKeys = java.util.Arrays.copyOf(keys, ops);
+            LinkedListLRU old = new LinkedListLRU(size);
+            for (int i = 0; i < Math.min(size, 200_000); i++) old.put(i);
+            report(size, "LinkedList", fewKeys, k -> {
+                for (int key : k) {
+                    if (!old.get(key)) old.put(key);
+                }
+            });
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void report(int size, String name, int[] keys, Workload workload) {
+        long best = Bench.best(3, 5, () -> {
+            workload.run(keys);
+            return keys.length;
+        }, ops -> { });
+        System.out.printf("%-12d %-14s %12.1f%n", size, name, (double) best / keys.length);
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.function.Consumer;
+
+//Least frequently used in O(1): entries sit in per-frequency buckets kept in ascending order,
+//a hit moves the entry to the next bucket. Ties inside a bucket are broken by recency.
+//The entry that was just inserted is never its own eviction victim: it would always be alone in
+//the lowest bucket, so a new key could never get in once the cache is full.
+public class LfuPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private static final class Bucket<K, V> extends LRUCatch.NodeList<K, V> {
+        final long freq;
+        Bucket<K, V> prevBucket;
+        Bucket<K, V> nextBucket;
+
+        Bucket(long freq) {
+            this.freq = freq;
+        }
+    }
+
+    // sentinel bucket (freq 0): nextBucket is the lowest frequency
+    private final Bucket<K, V> buckets = new Bucket<>(0);
+    // the put that may trigger the next evict()
+    private LRUCatch.Node<K, V> justInserted;
+
+    public LfuPolicy(int capacity) {
+        buckets.prevBucket = buckets;
+        buckets.nextBucket = buckets;
+    }
+
+    @Override
+    public void onInsert(LRUCatch.Node<K, V> node) {
+        Bucket<K, V> first = buckets.nextBucket;
+        if (first == buckets || first.freq != 1) {
+            first = insertAfter(buckets, 1);
+        }
+        first.linkLast(node);
+        justInserted = node;
+    }
+
+    @Override
+    public void onAccess(LRUCatch.Node<K, V> node) {
+        Bucket<K, V> current = (Bucket<K, V>) node.owner;
+        Bucket<K, V> target = current.nextBucket;
+        if (target == buckets || target.freq != current.freq + 1) {
+            target = insertAfter(current, current.freq + 1);
+        }
+        current.unlink(node);
+        target.linkLast(node);
+        dropIfEmpty(current);
+    }
+
+    @Override
+    public void onRemove(LRUCatch.Node<K, V> node) {
+        if (node == justInserted) {
+            justInserted = null;
+        }
+        Bucket<K, V> current = (Bucket<K, V>) node.owner;
+        current.unlink(node);
+        dropIfEmpty(current);
+    }
+
+    @Override
+    public LRUCatch.Node<K, V> evict() {
+        Bucket<K, V> lowest = buckets.nextBucket;
+        LRUCatch.Node<K, V> victim = lowest.first();
+        if (victim == justInserted) {
+            // the new entry is last in the freq-1 bucket, so it is first only when alone there
+            if (lowest.size() > 1) {
+                victim = victim.next;
+            } else if (lowest.nextBucket != buckets) {
+                lowest = lowest.nextBucket;
+                victim = lowest.first();
+            }
+        }
+        justInserted = null;
+        lowest.unlink(victim);
+        dropIfEmpty(lowest);
+        return victim;
+    }
+
+    @Override
+    public void forEach(Consumer<LRUCatch.Node<K, V>> action) {
+        for (Bucket<K, V> b = buckets.nextBucket; b != buckets; b = b.nextBucket) {
+            b.forEach(action);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "LFU";
+    }
+
+    private Bucket<K, V> insertAfter(Bucket<K, V> at, long freq) {
+        Bucket<K, V> b = new Bucket<>(freq);
+        b.prevBucket = at;
+        b.nextBucket = at.nextBucket;
+        at.nextBucket.prevBucket = b;
+        at.nextBucket = b;
+        return b;
+    }
+
+    private void dropIfEmpty(Bucket<K, V> b) {
+        if (b.isEmpty()) {
+            b.prevBucket.nextBucket = b.nextBucket;
+            b.nextBucket.prevBucket = b.prevBucket;
+        }
+    }
+}
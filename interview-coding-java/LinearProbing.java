@@ -0,0 +1,43 @@
+//What the linear-probing hash tables of this folder (IntLRUCatch, OffHeapLRUCatch, DailyTotalsMap,
+//IntObjectMap) have in common: the key hash and backward-shift deletion. Each table keeps its own
+//arrays and probe loops; deleteAt sees a table only through the Table view.
+final class LinearProbing {
+
+    private LinearProbing() {
+    }
+
+    //spreads the key over all 32 bits, so small consecutive keys (ages, days, slot ids) do not land
+    //in consecutive slots; tables index by the low bits
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    interface Table {
+        //home position of the entry at position i, or -1 when i is empty
+        int home(int i);
+
+        //moves the entry at position from into the vacated position to
+        void move(int from, int to);
+
+        void clear(int i);
+    }
+
+    //removes the entry at hole without a tombstone: every later entry of the probe run whose home
+    //is not in (hole, i] moves back into the hole, so lookups never stop early and runs stay short
+    static void deleteAt(Table table, int hole, int mask) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            int home = table.home(i);
+            if (home < 0) {
+                break;
+            }
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table.move(i, hole);
+                hole = i;
+            }
+        }
+        table.clear(hole);
+    }
+}
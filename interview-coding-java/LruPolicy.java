@@ -0,0 +1,42 @@
+import java.util.function.Consumer;
+
+//Least recently used: one recency queue, evict from the head.
+public class LruPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final LRUCatch.NodeList<K, V> queue = new LRUCatch.NodeList<>();
+
+    public LruPolicy(int capacity) {
+    }
+
+    @Override
+    public void onInsert(LRUCatch.Node<K, V> node) {
+        queue.linkLast(node);
+    }
+
+    @Override
+    public void onAccess(LRUCatch.Node<K, V> node) {
+        queue.moveToTail(node);
+    }
+
+    @Override
+    public void onRemove(LRUCatch.Node<K, V> node) {
+        queue.unlink(node);
+    }
+
+    @Override
+    public LRUCatch.Node<K, V> evict() {
+        LRUCatch.Node<K, V> victim = queue.first();
+        queue.unlink(victim);
+        return victim;
+    }
+
+    @Override
+    public void forEach(Consumer<LRUCatch.Node<K, V>> action) {
+        queue.forEach(action);
+    }
+
+    @Override
+    public String name() {
+        return "LRU";
+    }
+}
@@ -0,0 +1,348 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//Int array stored in a file and edited in place through FileChannel.map, for data sets larger
+//than the heap. The file is a 64-byte header (element count) followed by the ints in native
+//order, mapped as 1GB segments so more than 2^31 bytes work. Indexes are longs.
+//insert / delete / rotate / reverse move data with bulk chunk copies through one reusable
+//buffer, touching pages sequentially (at most two streams at a time) instead of element by element.
+public class MappedIntArray implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 64;
+    private static final int SEGMENT_SHIFT = 28;                // 2^28 ints = 1GB per segment
+    private static final long SEGMENT_INTS = 1L << SEGMENT_SHIFT;
+    private static final int CHUNK = 1 << 16;                   // ints per bulk copy
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int[] chunk = new int[CHUNK];
+    private final int[] chunk2 = new int[CHUNK];
+    private IntBuffer[] segments = new IntBuffer[0];
+    private MappedByteBuffer[] mappedSegments = new MappedByteBuffer[0];
+    private long capacity;
+    private long size;
+
+    private MappedIntArray(FileChannel channel, long size) throws IOException {
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.size = size;
+        long existing = Math.max(0, (channel.size() - HEADER_BYTES) / 4);
+        remap(Math.max(existing, Math.max(size, 1024)));
+        header.putLong(0, size);
+    }
+
+    //opens file, or creates an empty array when it does not exist
+    public static MappedIntArray open(Path file) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_BYTES;
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = 0;
+        if (exists) {
+            size = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).getLong(0);
+        }
+        return new MappedIntArray(channel, size);
+    }
+
+    public static MappedIntArray create(Path file, int[] values) throws IOException {
+        Files.deleteIfExists(file);
+        MappedIntArray arr = open(file);
+        arr.ensureCapacity(values.length);
+        arr.write(0, values, 0, values.length);
+        arr.setSize(values.length);
+        return arr;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int get(long index) {
+        checkIndex(index, size);
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & (SEGMENT_INTS - 1)));
+    }
+
+    public void set(long index, int value) {
+        checkIndex(index, size);
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & (SEGMENT_INTS - 1)), value);
+    }
+
+    public void add(int value) throws IOException {
+        ensureCapacity(size + 1);
+        setSize(size + 1);
+        set(size - 1, value);
+    }
+
+    //shift [index, size) one to the right with block copies, then store value
+    public void insert(long index, int value) throws IOException {
+        checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        move(index, index + 1, size - index);
+        setSize(size + 1);
+        set(index, value);
+    }
+
+    //binary search for the slot (no linear scan), then one block shift
+    public long insertSorted(int value) throws IOException {
+        long lo = 0;
+        long hi = size;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (get(mid) < value) lo = mid + 1;
+            else hi = mid;
+        }
+        insert(lo, value);
+        return lo;
+    }
+
+    public int delete(long index) {
+        checkIndex(index, size);
+        int removed = get(index);
+        move(index + 1, index, size - index - 1);
+        setSize(size - 1);
+        return removed;
+    }
+
+    //single streaming pass: read chunks ahead, write survivors behind (write position <= read position)
+    public long deleteAll(int value) {
+        long write = 0;
+        for (long read = 0; read < size; ) {
+            int len = (int) Math.min(CHUNK, size - read);
+            read(read, chunk, 0, len);
+            int kept = 0;
+            for (int i = 0; i < len; i++) {
+                int v = chunk[i];
+                chunk[kept] = v;
+                kept += v != value ? 1 : 0;
+            }
+            write(write, chunk, 0, kept);
+            write += kept;
+            read += len;
+        }
+        long removed = size - write;
+        setSize(write);
+        return removed;
+    }
+
+    public long replaceAll(int oldValue, int newValue) {
+        long replaced = 0;
+        for (long pos = 0; pos < size; ) {
+            int len = (int) Math.min(CHUNK, size - pos);
+            read(pos, chunk, 0, len);
+            int hits = 0;
+            for (int i = 0; i < len; i++) {
+                if (chunk[i] == oldValue) {
+                    chunk[i] = newValue;
+                    hits++;
+                }
+            }
+            if (hits > 0) {
+                // only dirty the pages that actually changed
+                write(pos, chunk, 0, len);
+                replaced += hits;
+            }
+            pos += len;
+        }
+        return replaced;
+    }
+
+    public void reverse() {
+        reverse(0, size);
+    }
+
+    //right rotation by k, same result as ArrayUtilsFull.rotateArray
+    public void rotate(long k) {
+        if (size == 0) {
+            return;
+        }
+        k = ((k % size) + size) % size;
+        reverse(0, size);
+        reverse(k, size);
+        reverse(0, k);
+    }
+
+    public int[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("too large for an int[]: " + size);
+        }
+        int[] out = new int[(int) size];
+        read(0, out, 0, out.length);
+        return out;
+    }
+
+    //flush dirty pages to the file
+    public void force() {
+        header.force();
+        for (MappedByteBuffer segment : mappedSegments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments = new IntBuffer[0];
+        mappedSegments = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return size <= 64 ? Arrays.toString(toArray()) : "MappedIntArray[size=" + size + "]";
+    }
+
+    // reverse [from, to): swap whole chunks from both ends, reversing each chunk in memory
+    private void reverse(long from, long to) {
+        long lo = from;
+        long hi = to;
+        while (hi - lo >= 2L * CHUNK) {
+            read(lo, chunk, 0, CHUNK);
+            read(hi - CHUNK, chunk2, 0, CHUNK);
+            reverseInPlace(chunk, CHUNK);
+            reverseInPlace(chunk2, CHUNK);
+            write(lo, chunk2, 0, CHUNK);
+            write(hi - CHUNK, chunk, 0, CHUNK);
+            lo += CHUNK;
+            hi -= CHUNK;
+        }
+        // the middle (< 2 chunks) is reversed in memory
+        int len = (int) (hi - lo);
+        if (len > 1) {
+            int[] middle = len <= CHUNK ? chunk : new int[len];
+            read(lo, middle, 0, len);
+            reverseInPlace(middle, len);
+            write(lo, middle, 0, len);
+        }
+    }
+
+    private static void reverseInPlace(int[] a, int len) {
+        for (int i = 0, j = len - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    // memmove of len ints from src to dst, chunk by chunk in the direction that is overlap-safe
+    private void move(long src, long dst, long len) {
+        if (len <= 0 || src == dst) {
+            return;
+        }
+        if (dst > src) {
+            long remaining = len;
+            while (remaining > 0) {
+                int n = (int) Math.min(CHUNK, remaining);
+                remaining -= n;
+                read(src + remaining, chunk, 0, n);
+                write(dst + remaining, chunk, 0, n);
+            }
+        } else {
+            for (long done = 0; done < len; ) {
+                int n = (int) Math.min(CHUNK, len - done);
+                read(src + done, chunk, 0, n);
+                write(dst + done, chunk, 0, n);
+                done += n;
+            }
+        }
+    }
+
+    private void read(long pos, int[] dst, int off, int len) {
+        while (len > 0) {
+            int seg = (int) (pos >>> SEGMENT_SHIFT);
+            int inSeg = (int) (pos & (SEGMENT_INTS - 1));
+            int n = (int) Math.min(len, SEGMENT_INTS - inSeg);
+            segments[seg].get(inSeg, dst, off, n);
+            pos += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void write(long pos, int[] src, int off, int len) {
+        while (len > 0) {
+            int seg = (int) (pos >>> SEGMENT_SHIFT);
+            int inSeg = (int) (pos & (SEGMENT_INTS - 1));
+            int n = (int) Math.min(len, SEGMENT_INTS - inSeg);
+            segments[seg].put(inSeg, src, off, n);
+            pos += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void setSize(long newSize) {
+        size = newSize;
+        header.putLong(0, newSize);
+    }
+
+    // grow the file by doubling and map the new range
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed > capacity) {
+            remap(Math.max(needed, capacity * 2));
+        }
+    }
+
+    private void remap(long newCapacity) throws IOException {
+        int count = (int) ((newCapacity + SEGMENT_INTS - 1) >>> SEGMENT_SHIFT);
+        IntBuffer[] mapped = Arrays.copyOf(segments, count);
+        MappedByteBuffer[] raw = Arrays.copyOf(mappedSegments, count);
+        for (int i = 0; i < count; i++) {
+            long ints = Math.min(SEGMENT_INTS, newCapacity - ((long) i << SEGMENT_SHIFT));
+            // full segments mapped earlier stay as they are; the last, partial one is mapped again larger
+            if (mapped[i] != null && mapped[i].capacity() >= ints) {
+                continue;
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + ((long) i << (SEGMENT_SHIFT + 2)), ints * 4);
+            raw[i] = bytes;
+            mapped[i] = bytes.order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        segments = mapped;
+        mappedSegments = raw;
+        capacity = newCapacity;
+    }
+
+    private static void checkIndex(long index, long bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + bound);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("mapped-int-array", ".bin");
+        try (MappedIntArray arr = create(file, new int[]{1, 2, 4, 5})) {
+            arr.insert(2, 3);
+            System.out.println("Insert at position 2, value 3: " + arr);
+            arr.insertSorted(2);
+            System.out.println("Insert into sorted array, value 2: " + arr);
+            arr.deleteAll(2);
+            System.out.println("Delete all 2: " + arr);
+            arr.reverse();
+            System.out.println("Reverse array: " + arr);
+            arr.reverse();
+            arr.rotate(2);
+            System.out.println("Rotate array by 2: " + arr);
+        }
+
+        // reopen: the data lives in the file, not in the heap
+        try (MappedIntArray again = open(file)) {
+            System.out.println("Reopened: " + again + ", file " + Files.size(file) + " bytes");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        /*
+        Insert at position 2, value 3: [1, 2, 3, 4, 5]
+        Insert into sorted array, value 2: [1, 2, 2, 3, 4, 5]
+        Delete all 2: [1, 3, 4, 5]
+        Reverse array: [5, 4, 3, 1]
+        Rotate array by 2: [4, 5, 1, 3]
+        Reopened: [4, 5, 1, 3], file 4160 bytes
+         */
+    }
+}
@@ -0,0 +1,393 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+//Multi-field sort spec compiled into one comparator, e.g. for MultiFieldSort:
+//  MultiKeyComparator.<Student>builder().ascendingInt(Student::getAge)
+//          .descendingDouble(Student::getGrade).ascending(Student::getName).build()
+//Comparator.comparing(getAge).thenComparing(...).reversed() boxes the int key on every call and goes
+//through a wrapper lambda per thenComparing/reversed level; here each key is one final node that
+//compares primitives directly and calls the next node only on a tie.
+//sortedIndexes/sorted also offer key normalization: every key is mapped to an unsigned long that
+//orders like the key (descending keys inverted), range-reduced over the data and packed high to low
+//into one long together with the element index. One Arrays.parallelSort(long[]) orders everything;
+//the full comparator is consulted only for runs whose packed prefix ties and is not exact (a
+//String contributes a 4-char prefix, a key that did not fit contributes only its top bits).
+//The result is stable, like List.sort.
+public final class MultiKeyComparator<T> implements Comparator<T> {
+
+    //MultiFieldSort's order (age, grade descending, name)
+    public static final MultiKeyComparator<MultiFieldSort.Student> STUDENT_ORDER =
+            MultiKeyComparator.<MultiFieldSort.Student>builder()
+                    .ascendingInt(MultiFieldSort.Student::getAge)
+                    .descendingDouble(MultiFieldSort.Student::getGrade)
+                    .ascending(MultiFieldSort.Student::getName)
+                    .build();
+
+    private final Key<T> first;
+
+    private MultiKeyComparator(Key<T> first) {
+        this.first = first;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static final class Builder<T> {
+        private final List<Function<Key<T>, Key<T>>> keys = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> ascendingInt(ToIntFunction<? super T> key) {
+            keys.add(next -> new IntKey<>(key, false, next));
+            return this;
+        }
+
+        public Builder<T> descendingInt(ToIntFunction<? super T> key) {
+            keys.add(next -> new IntKey<>(key, true, next));
+            return this;
+        }
+
+        public Builder<T> ascendingLong(ToLongFunction<? super T> key) {
+            keys.add(next -> new LongKey<>(key, false, next));
+            return this;
+        }
+
+        public Builder<T> descendingLong(ToLongFunction<? super T> key) {
+            keys.add(next -> new LongKey<>(key, true, next));
+            return this;
+        }
+
+        //Double.compare order: -0.0 before 0.0, NaN last
+        public Builder<T> ascendingDouble(ToDoubleFunction<? super T> key) {
+            keys.add(next -> new DoubleKey<>(key, false, next));
+            return this;
+        }
+
+        public Builder<T> descendingDouble(ToDoubleFunction<? super T> key) {
+            keys.add(next -> new DoubleKey<>(key, true, next));
+            return this;
+        }
+
+        public Builder<T> ascending(Function<? super T, String> key) {
+            keys.add(next -> new StringKey<>(key, false, next));
+            return this;
+        }
+
+        public Builder<T> descending(Function<? super T, String> key) {
+            keys.add(next -> new StringKey<>(key, true, next));
+            return this;
+        }
+
+        //any other Comparable key; compared as usual, not used for key normalization
+        public <U extends Comparable<? super U>> Builder<T> ascendingComparable(Function<? super T, ? extends U> key) {
+            keys.add(next -> new ComparableKey<>(key, Comparator.naturalOrder(), next));
+            return this;
+        }
+
+        public <U extends Comparable<? super U>> Builder<T> descendingComparable(Function<? super T, ? extends U> key) {
+            keys.add(next -> new ComparableKey<>(key, Comparator.reverseOrder(), next));
+            return this;
+        }
+
+        public MultiKeyComparator<T> build() {
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("no sort keys");
+            }
+            // link back to front so every node knows its tie-breaker
+            Key<T> first = null;
+            for (int i = keys.size() - 1; i >= 0; i--) {
+                first = keys.get(i).apply(first);
+            }
+            return new MultiKeyComparator<>(first);
+        }
+    }
+
+    @Override
+    public int compare(T a, T b) {
+        return first.compare(a, b);
+    }
+
+    //permutation that sorts items: items.get(result[0]) comes first; stable
+    public int[] sortedIndexes(List<? extends T> items) {
+        int n = items.size();
+        int indexBits = n <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+        int free = 64 - indexBits;
+        long[] packed = new long[n];
+        long[] column = new long[n];
+        boolean exact = true;
+        for (Key<T> k = first; k != null; k = k.next) {
+            if (free == 0 || !(k instanceof NormalizableKey<T> key)) {
+                exact = false;
+                break;
+            }
+            long min = -1;
+            long max = 0;
+            for (int i = 0; i < n; i++) {
+                long v = key.ordered(items.get(i));
+                column[i] = v;
+                if (Long.compareUnsigned(v, min) < 0) min = v;
+                if (Long.compareUnsigned(v, max) > 0) max = v;
+            }
+            // only the bits that vary in this data; a key too wide for what is left keeps its top bits
+            int width = 64 - Long.numberOfLeadingZeros(max - min);
+            int drop = Math.max(0, width - free);
+            int used = width - drop;
+            if (used > 0) {
+                for (int i = 0; i < n; i++) {
+                    long field = (column[i] - min) >>> drop;
+                    packed[i] = used == 64 ? field : packed[i] << used | field;
+                }
+            }
+            free -= used;
+            if (drop > 0 || !key.exact()) {
+                exact = false;
+                break;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            // flipping the sign bit makes the signed sort order the packed values as unsigned
+            packed[i] = (packed[i] << indexBits | i) ^ Long.MIN_VALUE;
+        }
+        // every value is distinct (index in the low bits), so the unstable parallel sort is fine
+        Arrays.parallelSort(packed);
+
+        int[] order = new int[n];
+        long indexMask = indexBits == 0 ? 0 : -1L >>> (64 - indexBits);
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (packed[i] & indexMask);
+        }
+        if (!exact) {
+            // equal prefixes are adjacent and already in index order; settle each run with the comparator
+            for (int start = 0; start < n; ) {
+                int end = start + 1;
+                while (end < n && (packed[end] ^ packed[start]) >>> indexBits == 0) {
+                    end++;
+                }
+                if (end - start > 1) {
+                    sortRun(items, order, start, end);
+                }
+                start = end;
+            }
+        }
+        return order;
+    }
+
+    //new list with the items in sorted order (same result as a stable sort with this comparator)
+    public <E extends T> List<E> sorted(List<E> items) {
+        int[] order = sortedIndexes(items);
+        List<E> out = new ArrayList<>(order.length);
+        for (int index : order) {
+            out.add(items.get(index));
+        }
+        return out;
+    }
+
+    private void sortRun(List<? extends T> items, int[] order, int start, int end) {
+        Integer[] run = new Integer[end - start];
+        for (int i = start; i < end; i++) {
+            run[i - start] = order[i];
+        }
+        // stable, so equal elements keep index order
+        Arrays.sort(run, (x, y) -> first.compare(items.get(x), items.get(y)));
+        for (int i = start; i < end; i++) {
+            order[i] = run[i - start];
+        }
+    }
+
+    private abstract static class Key<T> {
+        final Key<T> next;
+
+        Key(Key<T> next) {
+            this.next = next;
+        }
+
+        abstract int compare(T a, T b);
+
+        final int tieBreak(T a, T b) {
+            return next == null ? 0 : next.compare(a, b);
+        }
+    }
+
+    // a key that can be packed into sortedIndexes' long sort keys
+    private abstract static class NormalizableKey<T> extends Key<T> {
+
+        NormalizableKey(Key<T> next) {
+            super(next);
+        }
+
+        // unsigned long that orders like this key (direction included)
+        abstract long ordered(T t);
+
+        // equal ordered() values mean equal keys
+        boolean exact() {
+            return true;
+        }
+    }
+
+    private static final class IntKey<T> extends NormalizableKey<T> {
+        private final ToIntFunction<? super T> key;
+        private final boolean descending;
+
+        IntKey(ToIntFunction<? super T> key, boolean descending, Key<T> next) {
+            super(next);
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            int x = key.applyAsInt(a);
+            int y = key.applyAsInt(b);
+            if (x == y) {
+                return tieBreak(a, b);
+            }
+            return (x < y) != descending ? -1 : 1;
+        }
+
+        @Override
+        long ordered(T t) {
+            long v = key.applyAsInt(t) ^ Integer.MIN_VALUE;
+            return descending ? ~v : v;
+        }
+    }
+
+    private static final class LongKey<T> extends NormalizableKey<T> {
+        private final ToLongFunction<? super T> key;
+        private final boolean descending;
+
+        LongKey(ToLongFunction<? super T> key, boolean descending, Key<T> next) {
+            super(next);
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            long x = key.applyAsLong(a);
+            long y = key.applyAsLong(b);
+            if (x == y) {
+                return tieBreak(a, b);
+            }
+            return (x < y) != descending ? -1 : 1;
+        }
+
+        @Override
+        long ordered(T t) {
+            long v = key.applyAsLong(t) ^ Long.MIN_VALUE;
+            return descending ? ~v : v;
+        }
+    }
+
+    private static final class DoubleKey<T> extends NormalizableKey<T> {
+        private final ToDoubleFunction<? super T> key;
+        private final boolean descending;
+
+        DoubleKey(ToDoubleFunction<? super T> key, boolean descending, Key<T> next) {
+            super(next);
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            int c = Double.compare(key.applyAsDouble(a), key.applyAsDouble(b));
+            if (c == 0) {
+                return tieBreak(a, b);
+            }
+            return descending ? -c : c;
+        }
+
+        @Override
+        long ordered(T t) {
+            // IEEE bits: flip everything for negatives, only the sign for positives -> unsigned order
+            long bits = Double.doubleToLongBits(key.applyAsDouble(t));
+            long v = bits ^ (bits >> 63 | Long.MIN_VALUE);
+            return descending ? ~v : v;
+        }
+    }
+
+    private static final class StringKey<T> extends NormalizableKey<T> {
+        private static final int PREFIX_CHARS = 4;
+
+        private final Function<? super T, String> key;
+        private final boolean descending;
+
+        StringKey(Function<? super T, String> key, boolean descending, Key<T> next) {
+            super(next);
+            this.key = key;
+            this.descending = descending;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            int c = key.apply(a).compareTo(key.apply(b));
+            if (c == 0) {
+                return tieBreak(a, b);
+            }
+            return descending ? -c : c;
+        }
+
+        @Override
+        long ordered(T t) {
+            // first 4 UTF-16 chars, 16 bits each, zero-padded: orders like compareTo up to ties
+            String s = key.apply(t);
+            long v = 0;
+            for (int i = 0; i < PREFIX_CHARS; i++) {
+                v = v << 16 | (i < s.length() ? s.charAt(i) : 0);
+            }
+            return descending ? ~v : v;
+        }
+
+        @Override
+        boolean exact() {
+            return false;
+        }
+    }
+
+    private static final class ComparableKey<T, U> extends Key<T> {
+        private final Function<? super T, ? extends U> key;
+        private final Comparator<? super U> order;
+
+        ComparableKey(Function<? super T, ? extends U> key, Comparator<? super U> order, Key<T> next) {
+            super(next);
+            this.key = key;
+            this.order = order;
+        }
+
+        @Override
+        int compare(T a, T b) {
+            int c = order.compare(key.apply(a), key.apply(b));
+            return c != 0 ? c : tieBreak(a, b);
+        }
+    }
+
+    public static void main(String[] args) {
+        List<MultiFieldSort.Student> students = Arrays.asList(
+                new MultiFieldSort.Student("Alice", 22, 85.5),
+                new MultiFieldSort.Student("Bob", 20, 91.0),
+                new MultiFieldSort.Student("Charlie", 22, 78.0),
+                new MultiFieldSort.Student("David", 20, 91.0),
+                new MultiFieldSort.Student("Eve", 21, 85.5),
+                new MultiFieldSort.Student("Ann", 21, 85.5)
+        );
+
+        List<MultiFieldSort.Student> compared = new ArrayList<>(students);
+        compared.sort(STUDENT_ORDER);
+        System.out.println("comparator: " + compared);
+        System.out.println("normalized: " + STUDENT_ORDER.sorted(students));
+        System.out.println("indexes:    " + Arrays.toString(STUDENT_ORDER.sortedIndexes(students)));
+        /*
+        comparator: [Bob (Age: 20, Grade: 91.0), David (Age: 20, Grade: 91.0), Ann (Age: 21, Grade: 85.5), Eve (Age: 21, Grade: 85.5), Alice (Age: 22, Grade: 85.5), Charlie (Age: 22, Grade: 78.0)]
+        normalized: [Bob (Age: 20, Grade: 91.0), David (Age: 20, Grade: 91.0), Ann (Age: 21, Grade: 85.5), Eve (Age: 21, Grade: 85.5), Alice (Age: 22, Grade: 85.5), Charlie (Age: 22, Grade: 78.0)]
+        indexes:    [1, 3, 5, 4, 0, 2]
+         */
+    }
+}
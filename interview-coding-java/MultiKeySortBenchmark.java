@@ -0,0 +1,38 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+//MultiFieldSort's Comparator.comparing chain vs MultiKeyComparator (compiled comparator and packed
+//long sort keys) on 1M students:
+//  javac *.java && java MultiKeySortBenchmark [students]
+public class MultiKeySortBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SplittableRandom random = new SplittableRandom(21);
+        List<MultiFieldSort.Student> students = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            students.add(new MultiFieldSort.Student("name" + random.nextInt(50_000), 18 + random.nextInt(50),
+                    random.nextInt(0, 1001) / 10.0));
+        }
+        Comparator<MultiFieldSort.Student> chain = Comparator.comparing(MultiFieldSort.Student::getAge)
+                .thenComparing(Comparator.comparingDouble(MultiFieldSort.Student::getGrade).reversed())
+                .thenComparing(MultiFieldSort.Student::getName);
+        MultiKeyComparator<MultiFieldSort.Student> compiled = MultiKeyComparator.STUDENT_ORDER;
+
+        System.out.printf("%,d students, age asc / grade desc / name asc%n", n);
+        System.out.printf("%-28s %10s%n", "method", "ms");
+        Bench.report(28, "Comparator.comparing chain", () -> {
+            List<MultiFieldSort.Student> copy = new ArrayList<>(students);
+            copy.sort(chain);
+            return copy.get(n / 2).hashCode();
+        });
+        Bench.report(28, "compiled comparator", () -> {
+            List<MultiFieldSort.Student> copy = new ArrayList<>(students);
+            copy.sort(compiled);
+            return copy.get(n / 2).hashCode();
+        });
+        Bench.report(28, "packed long keys", () -> compiled.sorted(students).get(n / 2).hashCode());
+    }
+}
@@ -0,0 +1,374 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+//LRU cache that keeps keys, values, recency links and the hash index outside the Java heap,
+//so tens of millions of entries do not show up in old-gen GC time.
+//
+//Every entry owns one fixed-size slot:
+//  [hash int][prev int][next int][keyLen int][valueLen int][key bytes ... ][value bytes ...]
+//prev/next are slot numbers, not references. Slots live in slabs of at most 1GB, either
+//ByteBuffer.allocateDirect or FileChannel.map of a backing file. The index is an
+//open-addressing table of slot numbers in one more direct buffer (linear probing, load <= 0.5).
+//Keys/values larger than the configured maximum are rejected. Not thread-safe; LRU only.
+public class OffHeapLRUCatch<K, V> implements AutoCloseable {
+
+    private static final int HASH = 0;
+    private static final int PREV = 4;
+    private static final int NEXT = 8;
+    private static final int KEY_LEN = 12;
+    private static final int VALUE_LEN = 16;
+    private static final int HEADER = 20;
+
+    private static final int NONE = -1;
+    private static final long MAX_SLAB_BYTES = 1L << 30;
+
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final BiConsumer<? super K, ? super V> onEvict;
+    private final int cap;
+    private final int maxKeyBytes;
+    private final int maxValueBytes;
+    private final int slotSize;
+    private final int slotsPerSlab;
+    private final ByteBuffer[] slabs;
+    private final ByteBuffer index;
+    private final int indexMask;
+    private final FileChannel channel;
+    private final LinearProbing.Table probing = new LinearProbing.Table() {
+        @Override
+        public int home(int i) {
+            int slot = index.getInt(i * 4);
+            return slot == NONE ? -1 : slab(slot).getInt(offset(slot) + HASH) & indexMask;
+        }
+
+        @Override
+        public void move(int from, int to) {
+            index.putInt(to * 4, index.getInt(from * 4));
+        }
+
+        @Override
+        public void clear(int i) {
+            index.putInt(i * 4, NONE);
+        }
+    };
+
+    private int size;
+    private int used;           // slots handed out so far (slots >= used were never touched)
+    private int freeList = NONE; // removed slots, chained through NEXT
+    private int lru = NONE;
+    private int mru = NONE;
+
+    public OffHeapLRUCatch(int cap, int maxKeyBytes, int maxValueBytes,
+                           Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(cap, maxKeyBytes, maxValueBytes, keySerializer, valueSerializer, null, null);
+    }
+
+    //file != null maps the slabs from that file instead of allocating direct buffers
+    public OffHeapLRUCatch(int cap, int maxKeyBytes, int maxValueBytes,
+                           Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                           BiConsumer<? super K, ? super V> onEvict, Path file) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + cap);
+        }
+        this.cap = cap;
+        this.maxKeyBytes = maxKeyBytes;
+        this.maxValueBytes = maxValueBytes;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.onEvict = onEvict;
+        // 8-byte aligned slots keep the int header fields aligned
+        this.slotSize = (HEADER + maxKeyBytes + maxValueBytes + 7) & ~7;
+        this.slotsPerSlab = (int) Math.max(1, Math.min(cap, MAX_SLAB_BYTES / slotSize));
+
+        int slabCount = (cap + slotsPerSlab - 1) / slotsPerSlab;
+        this.slabs = new ByteBuffer[slabCount];
+        try {
+            this.channel = file == null ? null : FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long slabBytes = (long) slotsPerSlab * slotSize;
+            for (int i = 0; i < slabCount; i++) {
+                int slots = Math.min(slotsPerSlab, cap - i * slotsPerSlab);
+                slabs[i] = channel == null
+                        ? ByteBuffer.allocateDirect(slots * slotSize)
+                        : channel.map(FileChannel.MapMode.READ_WRITE, i * slabBytes, (long) slots * slotSize);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot map cache file " + file, e);
+        }
+
+        // in long: cap * 2 overflows int for cap > 2^30, and the index must fit one ByteBuffer
+        long tableSize = Long.highestOneBit(Math.max(2L, cap) * 2 - 1) << 1;
+        if (tableSize * 4L > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity too large for the index: " + cap);
+        }
+        int buckets = (int) tableSize;
+        this.index = ByteBuffer.allocateDirect(buckets * 4);
+        this.indexMask = buckets - 1;
+        for (int i = 0; i < buckets; i++) {
+            index.putInt(i * 4, NONE);
+        }
+    }
+
+    public V get(K key) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        int hash = hash(keyBytes);
+        int pos = find(keyBytes, hash);
+        if (pos < 0) {
+            return null;
+        }
+        int slot = index.getInt(pos * 4);
+        moveToMru(slot);
+        return valueSerializer.deserialize(readValue(slot));
+    }
+
+    public void put(K key, V value) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = valueSerializer.serialize(value);
+        if (keyBytes.length > maxKeyBytes || valueBytes.length > maxValueBytes) {
+            throw new IllegalArgumentException("entry too large: key " + keyBytes.length + "/" + maxKeyBytes
+                    + " bytes, value " + valueBytes.length + "/" + maxValueBytes + " bytes");
+        }
+        int hash = hash(keyBytes);
+        int pos = find(keyBytes, hash);
+        if (pos >= 0) {
+            int slot = index.getInt(pos * 4);
+            writeValue(slot, valueBytes);
+            moveToMru(slot);
+            return;
+        }
+
+        int slot = allocateSlot();
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        slab.putInt(off + HASH, hash);
+        slab.putInt(off + KEY_LEN, keyBytes.length);
+        slab.put(off + HEADER, keyBytes);
+        writeValue(slot, valueBytes);
+
+        int i = hash & indexMask;
+        while (index.getInt(i * 4) != NONE) {
+            i = (i + 1) & indexMask;
+        }
+        index.putInt(i * 4, slot);
+        linkMru(slot);
+        size++;
+    }
+
+    public boolean remove(K key) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        int pos = find(keyBytes, hash(keyBytes));
+        if (pos < 0) {
+            return false;
+        }
+        int slot = index.getInt(pos * 4);
+        deleteAt(pos);
+        unlink(slot);
+        size--;
+        slab(slot).putInt(offset(slot) + NEXT, freeList);
+        freeList = slot;
+        return true;
+    }
+
+    public boolean containsKey(K key) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        return find(keyBytes, hash(keyBytes)) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return cap;
+    }
+
+    //bytes reserved outside the heap: all slabs + index
+    public long offHeapBytes() {
+        return (long) cap * slotSize + index.capacity();
+    }
+
+    //reserved off-heap bytes per cache slot (slot + its share of the index)
+    public double bytesPerEntry() {
+        return (double) offHeapBytes() / cap;
+    }
+
+    public String memoryFootprint() {
+        return String.format("slot %d B (header %d + key %d + value %d), index %.1f B/entry, total %.1f B/entry, %,d B off-heap",
+                slotSize, HEADER, maxKeyBytes, maxValueBytes, (double) index.capacity() / cap,
+                bytesPerEntry(), offHeapBytes());
+    }
+
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(slabs, null);
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeList != NONE) {
+            int slot = freeList;
+            freeList = slab(slot).getInt(offset(slot) + NEXT);
+            return slot;
+        }
+        if (used < cap) {
+            return used++;
+        }
+        // full: recycle the least recently used slot
+        int slot = lru;
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        byte[] keyBytes = readKey(slot);
+        byte[] valueBytes = onEvict != null ? readValue(slot) : null;
+        deleteAt(find(keyBytes, slab.getInt(off + HASH)));
+        unlink(slot);
+        size--;
+        if (onEvict != null) {
+            onEvict.accept(keySerializer.deserialize(keyBytes), valueSerializer.deserialize(valueBytes));
+        }
+        return slot;
+    }
+
+    // index position of key, or -1
+    private int find(byte[] keyBytes, int hash) {
+        int i = hash & indexMask;
+        int slot;
+        while ((slot = index.getInt(i * 4)) != NONE) {
+            if (slab(slot).getInt(offset(slot) + HASH) == hash && keyEquals(slot, keyBytes)) {
+                return i;
+            }
+            i = (i + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    private void deleteAt(int hole) {
+        LinearProbing.deleteAt(probing, hole, indexMask);
+    }
+
+    private boolean keyEquals(int slot, byte[] keyBytes) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        if (slab.getInt(off + KEY_LEN) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (slab.get(off + HEADER + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readKey(int slot) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        byte[] bytes = new byte[slab.getInt(off + KEY_LEN)];
+        slab.get(off + HEADER, bytes);
+        return bytes;
+    }
+
+    private byte[] readValue(int slot) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        byte[] bytes = new byte[slab.getInt(off + VALUE_LEN)];
+        slab.get(off + HEADER + maxKeyBytes, bytes);
+        return bytes;
+    }
+
+    private void writeValue(int slot, byte[] valueBytes) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        slab.putInt(off + VALUE_LEN, valueBytes.length);
+        slab.put(off + HEADER + maxKeyBytes, valueBytes);
+    }
+
+    private void moveToMru(int slot) {
+        if (slot != mru) {
+            unlink(slot);
+            linkMru(slot);
+        }
+    }
+
+    private void linkMru(int slot) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        slab.putInt(off + PREV, mru);
+        slab.putInt(off + NEXT, NONE);
+        if (mru != NONE) {
+            slab(mru).putInt(offset(mru) + NEXT, slot);
+        } else {
+            lru = slot;
+        }
+        mru = slot;
+    }
+
+    private void unlink(int slot) {
+        ByteBuffer slab = slab(slot);
+        int off = offset(slot);
+        int prev = slab.getInt(off + PREV);
+        int next = slab.getInt(off + NEXT);
+        if (prev != NONE) slab(prev).putInt(offset(prev) + NEXT, next);
+        else lru = next;
+        if (next != NONE) slab(next).putInt(offset(next) + PREV, prev);
+        else mru = prev;
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot / slotsPerSlab];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSlab) * slotSize;
+    }
+
+    private static int hash(byte[] bytes) {
+        return LinearProbing.mix(Arrays.hashCode(bytes));
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (OffHeapLRUCatch<Integer, String> cache = new OffHeapLRUCatch<>(3, 4, 16,
+                Serializer.INT, Serializer.STRING, (k, v) -> System.out.println("evicted : " + k + "=" + v), null)) {
+            for (int i = 1; i <= 6; i++) {
+                cache.put(i, "value-" + i);
+            }
+            cache.get(4);
+            cache.put(7, "value-7");
+            System.out.println("get 4 : " + cache.get(4));
+            System.out.println("get 5 : " + cache.get(5));
+            System.out.println("size  : " + cache.size());
+            System.out.println(cache.memoryFootprint());
+        }
+
+        // int -> long entries: about 40 bytes per entry off-heap, nothing on the heap per entry
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        try (OffHeapLRUCatch<Integer, Long> big = new OffHeapLRUCatch<>(n, 4, 8, Serializer.INT, Serializer.LONG)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                big.put(i, (long) i * i);
+            }
+            long hits = 0;
+            for (int i = 0; i < n; i++) {
+                if (big.get(i) != null) hits++;
+            }
+            System.out.printf("%,d entries, %,d hits in %d ms%n", n, hits, (System.nanoTime() - start) / 1_000_000);
+            System.out.println(big.memoryFootprint());
+        }
+
+        /*
+        evicted : 1=value-1
+        evicted : 2=value-2
+        evicted : 3=value-3
+        evicted : 5=value-5
+        get 4 : value-4
+        get 5 : null
+        size  : 3
+         */
+    }
+}
@@ -0,0 +1,322 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+//Selection without sorting everything.
+//  nthSmallest / nthLargest / select: introselect, O(n) - quickselect with median-of-3 pivots and
+//    three-way partitioning (duplicates are cheap); when recursion goes deeper than 2*log2(n)
+//    the pivot switches to median-of-medians, which bounds the worst case at O(n).
+//  topK(Iterable, k, cmp) / topK(int[], k): one pass with a bounded min-heap, O(n log k), O(k) memory.
+//  topK(k, cmp) collector: each parallel leaf keeps its own bounded heap, the combiner folds one heap
+//    into the other (still k elements), so a parallel stream never holds more than k per leaf.
+//N is 1-based (1 = smallest); k in select is a 0-based rank. Results of topK are best first.
+public final class OrderStatistics {
+
+    private static final int INSERTION_SORT_LIMIT = 16;
+
+    private OrderStatistics() {
+    }
+
+    public static int nthSmallest(int[] arr, int n) {
+        checkRank(n, arr.length);
+        return select(arr.clone(), n - 1);
+    }
+
+    public static int nthLargest(int[] arr, int n) {
+        checkRank(n, arr.length);
+        return select(arr.clone(), arr.length - n);
+    }
+
+    //value of rank k (0-based) in ascending order; reorders arr so that arr[k] holds it,
+    //everything before is <= and everything after is >=
+    public static int select(int[] arr, int k) {
+        if (k < 0 || k >= arr.length) {
+            throw new IndexOutOfBoundsException("rank " + k + " out of bounds for length " + arr.length);
+        }
+        int lo = 0;
+        int hi = arr.length - 1;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(arr.length));
+        while (hi - lo >= INSERTION_SORT_LIMIT) {
+            int pivot = depth-- > 0 ? medianOf3(arr, lo, (lo + hi) >>> 1, hi) : medianOfMedians(arr, lo, hi);
+            // three-way partition: [lo, lt) < pivot, [lt, gt] == pivot, (gt, hi] > pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                int v = arr[i];
+                if (v < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (v > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return pivot;
+            }
+        }
+        insertionSort(arr, lo, hi);
+        return arr[k];
+    }
+
+    public static <T> T nthSmallest(List<T> list, int n, Comparator<? super T> cmp) {
+        checkRank(n, list.size());
+        // a bounded heap of n is cheaper than a copy + select when n is small
+        if (n <= 64) {
+            return topK(list, n, cmp.reversed()).get(n - 1);
+        }
+        @SuppressWarnings("unchecked")
+        T[] copy = (T[]) list.toArray();
+        return select(copy, n - 1, cmp);
+    }
+
+    public static <T> T nthLargest(List<T> list, int n, Comparator<? super T> cmp) {
+        return nthSmallest(list, n, cmp.reversed());
+    }
+
+    //object version of select(int[], int) with the same guarantees
+    public static <T> T select(T[] arr, int k, Comparator<? super T> cmp) {
+        if (k < 0 || k >= arr.length) {
+            throw new IndexOutOfBoundsException("rank " + k + " out of bounds for length " + arr.length);
+        }
+        int lo = 0;
+        int hi = arr.length - 1;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(arr.length));
+        while (hi - lo >= INSERTION_SORT_LIMIT) {
+            T pivot = depth-- > 0
+                    ? medianOf3(arr[lo], arr[(lo + hi) >>> 1], arr[hi], cmp)
+                    : medianOfMedians(arr, lo, hi, cmp);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                T v = arr[i];
+                int c = cmp.compare(v, pivot);
+                if (c < 0) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (c > 0) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return arr[k];
+            }
+        }
+        Arrays.sort(arr, lo, hi + 1, cmp);
+        return arr[k];
+    }
+
+    //k largest values, largest first
+    public static int[] topK(int[] arr, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        k = Math.min(k, arr.length);
+        // min-heap of the best k seen so far; heap[0] is the weakest of them
+        int[] heap = Arrays.copyOf(arr, k);
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < arr.length; i++) {
+            if (arr[i] > heap[0]) {
+                heap[0] = arr[i];
+                siftDown(heap, 0, k);
+            }
+        }
+        // heap sort in place: repeatedly move the minimum to the end -> descending order
+        for (int end = k - 1; end > 0; end--) {
+            int t = heap[0];
+            heap[0] = heap[end];
+            heap[end] = t;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    //k greatest elements by cmp, greatest first, in one pass
+    public static <T> List<T> topK(Iterable<? extends T> items, int k, Comparator<? super T> cmp) {
+        BoundedHeap<T> heap = new BoundedHeap<>(k, cmp);
+        for (T item : items) {
+            heap.offer(item);
+        }
+        return heap.toList();
+    }
+
+    //parallel-safe: one bounded heap per leaf, heaps merged pairwise
+    public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> cmp) {
+        return Collector.of(
+                () -> new BoundedHeap<T>(k, cmp),
+                BoundedHeap::offer,
+                BoundedHeap::merge,
+                BoundedHeap::toList,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static final class BoundedHeap<T> {
+        private final int k;
+        private final Comparator<? super T> cmp;
+        private final PriorityQueue<T> heap;   // natural head = weakest kept element
+
+        BoundedHeap(int k, Comparator<? super T> cmp) {
+            if (k < 0) {
+                throw new IllegalArgumentException("k must be >= 0: " + k);
+            }
+            this.k = k;
+            this.cmp = cmp;
+            this.heap = new PriorityQueue<>(Math.max(1, k), cmp);
+        }
+
+        void offer(T item) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (k > 0 && cmp.compare(item, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        BoundedHeap<T> merge(BoundedHeap<T> other) {
+            BoundedHeap<T> big = heap.size() >= other.heap.size() ? this : other;
+            BoundedHeap<T> small = big == this ? other : this;
+            for (T item : small.heap) {
+                big.offer(item);
+            }
+            return big;
+        }
+
+        List<T> toList() {
+            List<T> out = new ArrayList<>(heap);
+            out.sort(Collections.reverseOrder(cmp));
+            return out;
+        }
+    }
+
+    private static void siftDown(int[] heap, int i, int n) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= v) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+
+    private static int medianOf3(int[] arr, int a, int b, int c) {
+        int x = arr[a];
+        int y = arr[b];
+        int z = arr[c];
+        return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+    }
+
+    private static <T> T medianOf3(T x, T y, T z, Comparator<? super T> cmp) {
+        if (cmp.compare(x, y) > 0) {
+            T t = x;
+            x = y;
+            y = t;
+        }
+        // x <= y
+        if (cmp.compare(y, z) <= 0) {
+            return y;
+        }
+        return cmp.compare(x, z) >= 0 ? x : z;
+    }
+
+    // median of the medians of groups of 5 (moved to the front of the range), found recursively
+    private static int medianOfMedians(int[] arr, int lo, int hi) {
+        int medians = lo;
+        for (int g = lo; g <= hi; g += 5) {
+            int end = Math.min(g + 4, hi);
+            insertionSort(arr, g, end);
+            int m = (g + end) >>> 1;
+            int t = arr[medians];
+            arr[medians] = arr[m];
+            arr[m] = t;
+            medians++;
+        }
+        int count = medians - lo;
+        int[] group = Arrays.copyOfRange(arr, lo, medians);
+        return select(group, count / 2);
+    }
+
+    private static <T> T medianOfMedians(T[] arr, int lo, int hi, Comparator<? super T> cmp) {
+        int medians = lo;
+        for (int g = lo; g <= hi; g += 5) {
+            int end = Math.min(g + 4, hi);
+            Arrays.sort(arr, g, end + 1, cmp);
+            int m = (g + end) >>> 1;
+            T t = arr[medians];
+            arr[medians] = arr[m];
+            arr[m] = t;
+            medians++;
+        }
+        T[] group = Arrays.copyOfRange(arr, lo, medians);
+        return select(group, group.length / 2, cmp);
+    }
+
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int v = arr[i];
+            int j = i - 1;
+            while (j >= lo && arr[j] > v) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = v;
+        }
+    }
+
+    private static void checkRank(int n, int size) {
+        if (n < 1 || n > size) {
+            throw new IllegalArgumentException("n must be in 1.." + size + ": " + n);
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {2, 45, 56, 1, 5, 68, 9, 9, 20};
+        System.out.println("3rd smallest: " + nthSmallest(arr, 3));
+        System.out.println("3rd largest: " + nthLargest(arr, 3));
+        System.out.println("top 4: " + Arrays.toString(topK(arr, 4)));
+
+        List<String> words = List.of("abc", "abcd", "abcde", "abvcfsg", "ab");
+        System.out.println("2 longest: " + words.parallelStream().collect(topK(2, Comparator.comparingInt(String::length))));
+        // ThirdLongestWord without sorting every word
+        System.out.println("3rd longest: " + words.stream().collect(topK(3, Comparator.comparingInt(String::length))).get(2));
+        System.out.println("2nd shortest: " + nthSmallest(words, 2, Comparator.comparingInt(String::length)));
+        /*
+        3rd smallest: 5
+        3rd largest: 45
+        top 4: [68, 56, 45, 20]
+        2 longest: [abvcfsg, abcde]
+        3rd longest: abcd
+        2nd shortest: abc
+         */
+    }
+}
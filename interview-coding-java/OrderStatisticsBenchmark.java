@@ -0,0 +1,44 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+//Sort-based Nth element / top-K (what FindNthSmallestElement and ThirdLongestWord did) vs
+//OrderStatistics on 10M elements:
+//  javac *.java && java OrderStatisticsBenchmark [elements]
+public class OrderStatisticsBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] data = new SplittableRandom(11).ints(n).toArray();
+        List<Integer> boxed = Arrays.stream(data).boxed().collect(Collectors.toList());
+        int rank = n / 2;
+        int k = 100;
+        System.out.printf("%,d elements, median and top-%d%n", n, k);
+        System.out.printf("%-32s %10s%n", "method", "ms");
+
+        Bench.report(32, "median: Arrays.sort", () -> {
+            int[] copy = data.clone();
+            Arrays.sort(copy);
+            return copy[rank];
+        });
+        Bench.report(32, "median: introselect", () -> OrderStatistics.select(data.clone(), rank));
+
+        Bench.report(32, "top-k int: Arrays.sort", () -> {
+            int[] copy = data.clone();
+            Arrays.sort(copy);
+            return copy[n - k];
+        });
+        Bench.report(32, "top-k int: bounded heap", () -> OrderStatistics.topK(data, k)[k - 1]);
+
+        Bench.report(32, "top-k stream: sorted().skip()", () -> boxed.stream()
+                .sorted(Comparator.reverseOrder()).skip(k - 1).findFirst().get());
+        Bench.report(32, "top-k stream: collector", () -> boxed.stream()
+                .collect(OrderStatistics.topK(k, Comparator.naturalOrder())).get(k - 1));
+        Bench.report(32, "top-k parallel: sorted().skip()", () -> boxed.parallelStream()
+                .sorted(Comparator.reverseOrder()).skip(k - 1).findFirst().get());
+        Bench.report(32, "top-k parallel: collector", () -> boxed.parallelStream()
+                .collect(OrderStatistics.topK(k, Comparator.naturalOrder())).get(k - 1));
+    }
+}
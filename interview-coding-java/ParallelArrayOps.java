@@ -0,0 +1,244 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//Fork/join versions of the ArrayUtilsFull reverse / rotate / delete-all for very large arrays.
+//Inputs shorter than the threshold run the plain sequential loop (splitting costs more than it
+//saves there). Results are element-for-element the same as the ArrayUtilsFull methods.
+public final class ParallelArrayOps {
+
+    //below this many elements everything stays single-threaded (see ParallelArrayOpsBenchmark)
+    public static final int DEFAULT_THRESHOLD = 1 << 18;
+
+    // smallest piece of work handed to one fork/join task
+    private static final int LEAF = 1 << 15;
+
+    private ParallelArrayOps() {
+    }
+
+    public static int[] reverse(int[] arr) {
+        return reverse(arr, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static int[] reverse(int[] arr, int threshold, ForkJoinPool pool) {
+        reverseRange(arr, 0, arr.length - 1, threshold, pool);
+        return arr;
+    }
+
+    //right rotation by k, same as ArrayUtilsFull.rotateArray
+    public static int[] rotate(int[] arr, int k) {
+        return rotate(arr, k, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static int[] rotate(int[] arr, int k, int threshold, ForkJoinPool pool) {
+        int n = arr.length;
+        if (n == 0) {
+            return arr;
+        }
+        k = ((k % n) + n) % n;
+        if (k == 0) {
+            return arr;
+        }
+        int cycles = gcd(n, k);
+        if (n >= threshold && cycles >= 2 * pool.getParallelism()) {
+            // juggling: gcd(n, k) independent cycles, each moves every element exactly once
+            pool.invoke(new JuggleTask(arr, k, 0, cycles));
+        } else {
+            // triple reversal, each reversal split into independent swap ranges
+            reverseRange(arr, 0, n - 1, threshold, pool);
+            reverseRange(arr, k, n - 1, threshold, pool);
+            reverseRange(arr, 0, k - 1, threshold, pool);
+        }
+        return arr;
+    }
+
+    //copy of arr without value, same as ArrayUtilsFull.deleteAllOccurrences
+    public static int[] deleteAll(int[] arr, int value) {
+        return deleteAll(arr, value, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    //parallel compaction: count per block, exclusive prefix sum of the counts, then every block
+    //copies its survivors to its own precomputed offset (no two blocks write the same range)
+    public static int[] deleteAll(int[] arr, int value, int threshold, ForkJoinPool pool) {
+        int n = arr.length;
+        if (n < threshold) {
+            return ArrayUtilsFull.deleteAllOccurrences(arr, value);
+        }
+        int blocks = Math.max(1, Math.min(pool.getParallelism() * 8, n / LEAF));
+        int blockSize = (n + blocks - 1) / blocks;
+        int[] offsets = new int[blocks + 1];
+
+        pool.invoke(new BlockTask(0, blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            int kept = 0;
+            for (int i = from; i < to; i++) {
+                kept += arr[i] != value ? 1 : 0;
+            }
+            offsets[b + 1] = kept;
+        }));
+        for (int b = 0; b < blocks; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+
+        int[] result = new int[offsets[blocks]];
+        pool.invoke(new BlockTask(0, blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            int j = offsets[b];
+            for (int i = from; i < to; i++) {
+                int v = arr[i];
+                if (v != value) result[j++] = v;
+            }
+        }));
+        return result;
+    }
+
+    private static void reverseRange(int[] arr, int start, int end, int threshold, ForkJoinPool pool) {
+        int len = end - start + 1;
+        if (len < threshold || len < 2 * LEAF) {
+            swapRange(arr, start, end, 0, len / 2);
+        } else {
+            pool.invoke(new SwapTask(arr, start, end, 0, len / 2));
+        }
+    }
+
+    // swaps arr[start + i] with arr[end - i] for i in [from, to)
+    private static void swapRange(int[] arr, int start, int end, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int a = start + i;
+            int b = end - i;
+            int temp = arr[a];
+            arr[a] = arr[b];
+            arr[b] = temp;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static final class SwapTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int start;
+        private final int end;
+        private final int from;
+        private final int to;
+
+        SwapTask(int[] arr, int start, int end, int from, int to) {
+            this.arr = arr;
+            this.start = start;
+            this.end = end;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF) {
+                swapRange(arr, start, end, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SwapTask(arr, start, end, from, mid), new SwapTask(arr, start, end, mid, to));
+        }
+    }
+
+    // cycles [from, to) of the juggling rotation
+    private static final class JuggleTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        JuggleTask(int[] arr, int k, int from, int to) {
+            this.arr = arr;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int n = arr.length;
+            // each cycle has n / gcd elements
+            if ((long) (to - from) * (n / gcd(n, k)) <= LEAF || to - from == 1) {
+                for (int c = from; c < to; c++) {
+                    // right rotation: the value at i moves to (i + k) % n
+                    int i = c;
+                    int carried = arr[i];
+                    do {
+                        int next = i + k;
+                        if (next >= n) next -= n;
+                        int temp = arr[next];
+                        arr[next] = carried;
+                        carried = temp;
+                        i = next;
+                    } while (i != c);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new JuggleTask(arr, k, from, mid), new JuggleTask(arr, k, mid, to));
+        }
+    }
+
+    interface BlockBody {
+        void run(int block);
+    }
+
+    static final class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final BlockBody body;
+
+        BlockTask(int from, int to, BlockBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.run(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BlockTask(from, mid, body), new BlockTask(mid, to, body));
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {1, 2, 3, 4, 5};
+        System.out.println("Reverse array: " + Arrays.toString(reverse(arr.clone())));
+        System.out.println("Rotate array by 2: " + Arrays.toString(rotate(arr.clone(), 2)));
+        System.out.println("Delete all 2: " + Arrays.toString(deleteAll(new int[]{1, 2, 2, 3, 2}, 2)));
+
+        // forced parallel on a bigger array, checked against the sequential versions
+        int[] big = new java.util.SplittableRandom(9).ints(5_000_000, 0, 10).toArray();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("same reverse : " + Arrays.equals(reverse(big.clone(), 0, pool), ArrayUtilsFull.reverseArray(big.clone())));
+        System.out.println("same rotate  : " + Arrays.equals(rotate(big.clone(), 1_000_000, 0, pool), ArrayUtilsFull.rotateArray(big.clone(), 1_000_000)));
+        System.out.println("same delete  : " + Arrays.equals(deleteAll(big, 3, 0, pool), ArrayUtilsFull.deleteAllOccurrences(big, 3)));
+        /*
+        Reverse array: [5, 4, 3, 2, 1]
+        Rotate array by 2: [4, 5, 1, 2, 3]
+        Delete all 2: [1, 3]
+        same reverse : true
+        same rotate  : true
+        same delete  : true
+         */
+    }
+}
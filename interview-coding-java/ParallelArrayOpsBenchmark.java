@@ -0,0 +1,60 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+//Sequential ArrayUtilsFull vs ParallelArrayOps (threshold 0, i.e. always forked) from 1K to 100M
+//ints, to locate the size where forking starts to pay off on this machine. Every parallel result
+//is compared with the sequential one.
+//  javac *.java && java ParallelArrayOpsBenchmark [parallelism]   (100M needs about -Xmx2g)
+public class ParallelArrayOpsBenchmark {
+
+    interface Op {
+        int[] apply(int[] arr);
+    }
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        System.out.println("parallelism " + parallelism + ", default threshold " + ParallelArrayOps.DEFAULT_THRESHOLD);
+        System.out.printf("%-11s %-8s %12s %12s %9s %6s%n", "n", "op", "seq ms", "par ms", "speedup", "same");
+
+        for (int n = 1_000; n <= 100_000_000; n *= 10) {
+            if ((long) n * 4 * 4 > Runtime.getRuntime().maxMemory() * 0.8) {
+                System.out.printf("%-11d skipped, needs a larger -Xmx%n", n);
+                continue;
+            }
+            int[] source = new SplittableRandom(5).ints(n, 0, 16).toArray();
+            int k = n / 3 + 1;
+            compare(n, "reverse", source, ArrayUtilsFull::reverseArray, a -> ParallelArrayOps.reverse(a, 0, pool));
+            compare(n, "rotate", source, a -> ArrayUtilsFull.rotateArray(a, k), a -> ParallelArrayOps.rotate(a, k, 0, pool));
+            compare(n, "delete", source, a -> ArrayUtilsFull.deleteAllOccurrences(a, 2),
+                    a -> ParallelArrayOps.deleteAll(a, 2, 0, pool));
+        }
+        pool.shutdown();
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void compare(int n, String name, int[] source, Op sequential, Op parallel) {
+        boolean same = Arrays.equals(sequential.apply(source.clone()), parallel.apply(source.clone()));
+        double seq = time(n, source, sequential);
+        double par = time(n, source, parallel);
+        System.out.printf("%-11d %-8s %12.3f %12.3f %8.2fx %6s%n", n, name, seq, par, seq / par, same);
+    }
+
+    // best of several runs in ms; the input copy is not timed
+    private static double time(int n, int[] source, Op op) {
+        int[] work = new int[n];
+        int runs = (int) Math.max(5, Math.min(1_000, 20_000_000L / n));
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < runs + 3; r++) {
+            System.arraycopy(source, 0, work, 0, n);
+            long start = System.nanoTime();
+            sink += op.apply(work).length;
+            long elapsed = System.nanoTime() - start;
+            if (r >= 3) best = Math.min(best, elapsed);
+        }
+        return best / 1e6;
+    }
+}
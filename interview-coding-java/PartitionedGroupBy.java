@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+//Radix-partitioned parallel group-by with the Collectors.groupingBy contract:
+//Map<Integer, List<T>>, every list in encounter order.
+//  1. per block (in parallel): compute the keys once and histogram them by partition (hash bits)
+//  2. prefix sums give every (block, partition) pair its own output range
+//  3. per block (in parallel): scatter element indexes into those ranges - no locks, no CAS
+//  4. per partition (in parallel): group its range; partitions hold disjoint keys, so nothing is merged
+//Because blocks are laid out in order inside each partition, the groups keep encounter order.
+//groupingBy on a parallel stream instead merges whole maps at every fork/join level, and
+//groupingByConcurrent funnels every thread through one ConcurrentHashMap.
+public final class PartitionedGroupBy {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 15;
+    private static final int LEAF = 1 << 12;
+
+    private PartitionedGroupBy() {
+    }
+
+    public static <T> Map<Integer, List<T>> groupingByInt(List<T> items, ToIntFunction<? super T> key) {
+        return groupingByInt(items, key, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static <T> Map<Integer, List<T>> groupingByInt(List<T> items, ToIntFunction<? super T> key,
+                                                          int threshold, ForkJoinPool pool) {
+        int n = items.size();
+        if (n < threshold) {
+            return items.stream().collect(Collectors.groupingBy(key::applyAsInt));
+        }
+        // the blocks index into the list, so it must be cheap to get(i)
+        List<T> list = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        int parallelism = pool.getParallelism();
+        int blocks = Math.max(1, Math.min(parallelism * 8, n / LEAF));
+        int blockSize = (n + blocks - 1) / blocks;
+        int partitions = Math.max(2, Integer.highestOneBit(parallelism * 4 - 1) << 1);
+        // partition by the top bits of the hash: IntObjectMap indexes by the low ones, so the keys of
+        // one partition still spread over its map
+        int partitionShift = Integer.SIZE - Integer.numberOfTrailingZeros(partitions);
+
+        int[] keys = new int[n];
+        int[][] histogram = new int[blocks][partitions];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            int[] counts = histogram[b];
+            for (int i = from; i < to; i++) {
+                int k = key.applyAsInt(list.get(i));
+                keys[i] = k;
+                counts[LinearProbing.mix(k) >>> partitionShift]++;
+            }
+        }));
+
+        // partition-major exclusive prefix sum: partition p = blocks 0..B-1 in order
+        int[] partitionStart = new int[partitions + 1];
+        int offset = 0;
+        for (int p = 0; p < partitions; p++) {
+            partitionStart[p] = offset;
+            for (int b = 0; b < blocks; b++) {
+                int count = histogram[b][p];
+                histogram[b][p] = offset;
+                offset += count;
+            }
+        }
+        partitionStart[partitions] = offset;
+
+        int[] order = new int[n];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            int[] next = histogram[b];
+            for (int i = from; i < to; i++) {
+                order[next[LinearProbing.mix(keys[i]) >>> partitionShift]++] = i;
+            }
+        }));
+
+        @SuppressWarnings("unchecked")
+        IntObjectMap<List<T>>[] groups = (IntObjectMap<List<T>>[]) new IntObjectMap<?>[partitions];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, partitions, p -> {
+            IntObjectMap<List<T>> local = new IntObjectMap<>();
+            for (int j = partitionStart[p]; j < partitionStart[p + 1]; j++) {
+                int i = order[j];
+                local.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(list.get(i));
+            }
+            groups[p] = local;
+        }));
+
+        // O(distinct keys): the only sequential step, and the only place keys get boxed
+        int distinct = Arrays.stream(groups).mapToInt(IntObjectMap::size).sum();
+        Map<Integer, List<T>> result = new HashMap<>((int) (distinct / 0.75f) + 1);
+        for (IntObjectMap<List<T>> local : groups) {
+            local.forEach(result::put);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        List<EmployeeGrouping.Employee> employees = Arrays.asList(
+                new EmployeeGrouping.Employee("Alice", 25),
+                new EmployeeGrouping.Employee("Bob", 30),
+                new EmployeeGrouping.Employee("Charlie", 25),
+                new EmployeeGrouping.Employee("David", 30),
+                new EmployeeGrouping.Employee("Eve", 35),
+                new EmployeeGrouping.Employee("Frank", 25)
+        );
+        // threshold 0 forces the partitioned path even for six employees
+        groupingByInt(employees, EmployeeGrouping.Employee::getAge, 0, ForkJoinPool.commonPool())
+                .forEach((age, empList) -> System.out.println(age + " -> " + empList));
+
+        // a multi-million roster, compared with groupingBy on a parallel stream
+        SplittableRandom random = new SplittableRandom(1);
+        List<EmployeeGrouping.Employee> roster = new ArrayList<>();
+        for (int i = 0; i < 3_000_000; i++) {
+            roster.add(new EmployeeGrouping.Employee("e" + i, random.nextInt(100_000)));
+        }
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            Map<Integer, List<EmployeeGrouping.Employee>> expected = roster.parallelStream()
+                    .collect(Collectors.groupingBy(EmployeeGrouping.Employee::getAge));
+            long t1 = System.nanoTime();
+            Map<Integer, List<EmployeeGrouping.Employee>> partitioned = groupingByInt(roster, EmployeeGrouping.Employee::getAge);
+            long t2 = System.nanoTime();
+            if (round == 2) {
+                System.out.printf("groupingBy parallel %d ms, partitioned %d ms, same result: %b%n",
+                        (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, expected.equals(partitioned));
+            }
+        }
+        /*
+        25 -> [Alice, Charlie, Frank]
+        35 -> [Eve]
+        30 -> [Bob, David]
+        groupingBy parallel 874 ms, partitioned 276 ms, same result: true   (times vary by machine)
+         */
+    }
+}
@@ -0,0 +1,414 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+//Columnar (struct-of-arrays) table for the name/age/grade models (EmployeeGrouping.Employee,
+//StudentAverage.Student, MultiFieldSort.Student). One int[] for age, one double[] for grade, and
+//names dictionary-encoded as an int[] of ids into a String[] of distinct names.
+//A row costs 16 bytes of columns instead of an object header + fields + reference each
+//(and repeated names are stored once), and a column aggregate is a loop over one primitive array.
+//Filters return a Selection (ascending row numbers) that other filters and aggregates take.
+public final class PersonTable {
+
+    private static final int DENSE_GROUP_LIMIT = 1 << 16;
+
+    private final int size;
+    private final int[] ages;
+    private final double[] grades;
+    private final int[] nameIds;
+    private final String[] dictionary;
+    private final Map<String, Integer> nameToId;
+
+    private PersonTable(Builder b) {
+        this.size = b.size;
+        this.ages = Arrays.copyOf(b.ages, b.size);
+        this.grades = Arrays.copyOf(b.grades, b.size);
+        this.nameIds = Arrays.copyOf(b.nameIds, b.size);
+        this.dictionary = b.dictionary.toArray(new String[0]);
+        this.nameToId = new HashMap<>(b.nameToId);
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static <T> PersonTable of(Collection<T> rows, Function<? super T, String> name,
+                                     ToIntFunction<? super T> age, ToDoubleFunction<? super T> grade) {
+        Builder b = new Builder(rows.size());
+        for (T row : rows) {
+            b.add(name.apply(row), age.applyAsInt(row), grade.applyAsDouble(row));
+        }
+        return b.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private int[] ages;
+        private double[] grades;
+        private int[] nameIds;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> nameToId = new HashMap<>();
+
+        private Builder(int capacity) {
+            capacity = Math.max(capacity, 1);
+            ages = new int[capacity];
+            grades = new double[capacity];
+            nameIds = new int[capacity];
+        }
+
+        public Builder add(String name, int age, double grade) {
+            if (size == ages.length) {
+                int grown = size + (size >> 1) + 1;
+                ages = Arrays.copyOf(ages, grown);
+                grades = Arrays.copyOf(grades, grown);
+                nameIds = Arrays.copyOf(nameIds, grown);
+            }
+            Integer id = nameToId.get(name);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.add(name);
+                nameToId.put(name, id);
+            }
+            ages[size] = age;
+            grades[size] = grade;
+            nameIds[size] = id;
+            size++;
+            return this;
+        }
+
+        public PersonTable build() {
+            return new PersonTable(this);
+        }
+    }
+
+    //view of one row; rows handed out by forEachRow are one reused cursor, do not keep them
+    public final class Row {
+        private int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String name() {
+            return dictionary[nameIds[index]];
+        }
+
+        public int age() {
+            return ages[index];
+        }
+
+        public double grade() {
+            return grades[index];
+        }
+
+        @Override
+        public String toString() {
+            return name() + " (Age: " + age() + ", Grade: " + grade() + ")";
+        }
+    }
+
+    //ascending row numbers produced by a filter
+    public final class Selection {
+        private final int[] rows;
+        private final int count;
+
+        private Selection(int[] rows, int count) {
+            this.rows = rows;
+            this.count = count;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int[] rows() {
+            return Arrays.copyOf(rows, count);
+        }
+
+        //rows in both selections (merge of two sorted lists)
+        public Selection and(Selection other) {
+            int[] out = new int[Math.min(count, other.count)];
+            int k = 0;
+            for (int i = 0, j = 0; i < count && j < other.count; ) {
+                int a = rows[i];
+                int b = other.rows[j];
+                if (a == b) out[k++] = a;
+                if (a <= b) i++;
+                if (b <= a) j++;
+            }
+            return new Selection(out, k);
+        }
+
+        public Selection where(IntPredicate rowTest) {
+            int[] out = new int[count];
+            int k = 0;
+            for (int i = 0; i < count; i++) {
+                int r = rows[i];
+                out[k] = r;
+                k += rowTest.test(r) ? 1 : 0;
+            }
+            return new Selection(out, k);
+        }
+
+        public double averageAge() {
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += ages[rows[i]];
+            }
+            return count == 0 ? Double.NaN : (double) sum / count;
+        }
+
+        public double averageGrade() {
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += grades[rows[i]];
+            }
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        public void forEachRow(Consumer<Row> action) {
+            Row cursor = new Row(0);
+            for (int i = 0; i < count; i++) {
+                cursor.index = rows[i];
+                action.accept(cursor);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Row row(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("row " + index + " out of bounds for size " + size);
+        }
+        return new Row(index);
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public double grade(int row) {
+        return grades[row];
+    }
+
+    public String name(int row) {
+        return dictionary[nameIds[row]];
+    }
+
+    public int distinctNames() {
+        return dictionary.length;
+    }
+
+    public void forEachRow(Consumer<Row> action) {
+        Row cursor = new Row(0);
+        for (int i = 0; i < size; i++) {
+            cursor.index = i;
+            action.accept(cursor);
+        }
+    }
+
+    public double averageAge() {
+        long sum = 0;
+        for (int age : ages) {
+            sum += age;
+        }
+        return size == 0 ? Double.NaN : (double) sum / size;
+    }
+
+    public double averageGrade() {
+        double sum = 0;
+        for (double grade : grades) {
+            sum += grade;
+        }
+        return size == 0 ? Double.NaN : sum / size;
+    }
+
+    public int maxAge() {
+        int max = Integer.MIN_VALUE;
+        for (int age : ages) {
+            max = Math.max(max, age);
+        }
+        return max;
+    }
+
+    public double maxGrade() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double grade : grades) {
+            max = Math.max(max, grade);
+        }
+        return max;
+    }
+
+    public Selection all() {
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = i;
+        }
+        return new Selection(out, size);
+    }
+
+    //branch-free compaction: always write the row, advance only on a match
+    public Selection whereAgeBetween(int min, int max) {
+        int[] out = new int[size];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            int age = ages[i];
+            out[k] = i;
+            k += (age >= min & age <= max) ? 1 : 0;
+        }
+        return new Selection(out, k);
+    }
+
+    public Selection whereGradeAtLeast(double min) {
+        int[] out = new int[size];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            out[k] = i;
+            k += grades[i] >= min ? 1 : 0;
+        }
+        return new Selection(out, k);
+    }
+
+    //one dictionary lookup, then int comparisons instead of String.equals per row
+    public Selection whereName(String name) {
+        Integer id = nameToId.get(name);
+        if (id == null) {
+            return new Selection(new int[0], 0);
+        }
+        int target = id;
+        int[] out = new int[size];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            out[k] = i;
+            k += nameIds[i] == target ? 1 : 0;
+        }
+        return new Selection(out, k);
+    }
+
+    //age -> number of rows, ascending by age
+    public Map<Integer, Integer> countByAge() {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        ageGroups().forEachSorted((age, acc) -> out.put(age, (int) acc[0]));
+        return out;
+    }
+
+    //age -> average grade, ascending by age
+    public Map<Integer, Double> averageGradeByAge() {
+        Map<Integer, Double> out = new LinkedHashMap<>();
+        ageGroups().forEachSorted((age, acc) -> out.put(age, acc[1] / acc[0]));
+        return out;
+    }
+
+    // {count, grade sum} per age: dense arrays offset by the minimum age when the range is small
+    // (the normal case for ages), an IntObjectMap otherwise
+    private IntObjectMap<double[]> ageGroups() {
+        IntObjectMap<double[]> groups = new IntObjectMap<>();
+        if (size == 0) {
+            return groups;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int age : ages) {
+            min = Math.min(min, age);
+        }
+        long range = (long) maxAge() - min + 1;
+        if (range > DENSE_GROUP_LIMIT) {
+            for (int i = 0; i < size; i++) {
+                double[] acc = groups.computeIfAbsent(ages[i], k -> new double[2]);
+                acc[0]++;
+                acc[1] += grades[i];
+            }
+            return groups;
+        }
+        int[] counts = new int[(int) range];
+        double[] sums = new double[(int) range];
+        for (int i = 0; i < size; i++) {
+            int slot = ages[i] - min;
+            counts[slot]++;
+            sums[slot] += grades[i];
+        }
+        for (int i = 0; i < range; i++) {
+            if (counts[i] > 0) groups.put(min + i, new double[]{counts[i], sums[i]});
+        }
+        return groups;
+    }
+
+    //name -> average grade, in first-seen name order
+    public Map<String, Double> averageGradeByName() {
+        int[] counts = new int[dictionary.length];
+        double[] sums = new double[dictionary.length];
+        for (int i = 0; i < size; i++) {
+            counts[nameIds[i]]++;
+            sums[nameIds[i]] += grades[i];
+        }
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int id = 0; id < dictionary.length; id++) {
+            out.put(dictionary[id], sums[id] / counts[id]);
+        }
+        return out;
+    }
+
+    //bytes held by the columns and the dictionary strings (Latin-1 compact strings)
+    public long memoryFootprint() {
+        long bytes = (long) size * (Integer.BYTES + Double.BYTES + Integer.BYTES);
+        for (String name : dictionary) {
+            bytes += 24 + 16 + name.length();
+        }
+        return bytes;
+    }
+
+    public static void main(String[] args) {
+        List<MultiFieldSort.Student> students = Arrays.asList(
+                new MultiFieldSort.Student("Alice", 22, 85.5),
+                new MultiFieldSort.Student("Bob", 20, 91.0),
+                new MultiFieldSort.Student("Charlie", 22, 78.0),
+                new MultiFieldSort.Student("David", 20, 91.0),
+                new MultiFieldSort.Student("Eve", 21, 85.5)
+        );
+        PersonTable table = PersonTable.of(students, MultiFieldSort.Student::getName,
+                MultiFieldSort.Student::getAge, MultiFieldSort.Student::getGrade);
+
+        System.out.println("average grade: " + table.averageGrade());
+        System.out.println("average grade by age: " + table.averageGradeByAge());
+        System.out.println("count by age: " + table.countByAge());
+        Selection goodAndYoung = table.whereGradeAtLeast(85).and(table.whereAgeBetween(20, 21));
+        System.out.println("grade >= 85 and age 20..21: " + goodAndYoung.size() + " rows, average age " + goodAndYoung.averageAge());
+        goodAndYoung.forEachRow(row -> System.out.println("  " + row));
+
+        // a million rows with a few thousand distinct names
+        Builder big = PersonTable.builder();
+        SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 1_000_000; i++) {
+            big.add("name" + random.nextInt(5_000), 18 + random.nextInt(50), random.nextInt(0, 1001) / 10.0);
+        }
+        PersonTable people = big.build();
+        System.out.printf("%,d rows, %,d names, %.1f bytes/row%n", people.size(), people.distinctNames(),
+                (double) people.memoryFootprint() / people.size());
+        /*
+        average grade: 86.2
+        average grade by age: {20=91.0, 21=85.5, 22=81.75}
+        count by age: {20=2, 21=1, 22=2}
+        grade >= 85 and age 20..21: 3 rows, average age 20.333333333333332
+          Bob (Age: 20, Grade: 91.0)
+          David (Age: 20, Grade: 91.0)
+          Eve (Age: 21, Grade: 85.5)
+        1,000,000 rows, 5,000 names, 16.2 bytes/row
+         */
+    }
+}
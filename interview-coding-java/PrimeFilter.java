@@ -0,0 +1,162 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+//Bulk prime filter for batches, replacing prime.stream().filter(FindPrimeNumbers::isprime).
+//A batch is scanned for its maximum first. The shared PrimeSieve is grown to cover it (at least
+//doubling, so a growing workload re-sieves O(log max) times) and then every value is one bit test
+//in a branch-free compaction loop.
+//The sieve is immutable and lives in an AtomicReference. Growing builds a larger copy
+//(PrimeSieve.extendTo, only the new segments are sieved) and publishes it with one set, so
+//lookups never lock and always see a complete sieve. Growth itself is serialized so that
+//concurrent batches do not sieve the same range twice.
+//Values above maxSieveLimit (default 2^28, a 16MB sieve) go through PrimeOracle.millerRabin
+//instead, so one huge value cannot blow up the shared sieve.
+public final class PrimeFilter {
+
+    public static final int DEFAULT_MAX_SIEVE_LIMIT = 1 << 28;
+    private static final int INITIAL_LIMIT = 1 << 16;
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+    private static final int LEAF = 1 << 15;
+    private static final int PARALLEL_SIEVE_LIMIT = 1 << 24;
+
+    private static final PrimeFilter SHARED = new PrimeFilter(DEFAULT_MAX_SIEVE_LIMIT);
+
+    private final AtomicReference<PrimeSieve> sieve;
+    private final int maxSieveLimit;
+    private final Object growLock = new Object();
+
+    public PrimeFilter(int maxSieveLimit) {
+        this.maxSieveLimit = Math.max(INITIAL_LIMIT, maxSieveLimit);
+        this.sieve = new AtomicReference<>(PrimeSieve.of(INITIAL_LIMIT));
+    }
+
+    //one process-wide filter, so all pipelines share (and grow) the same sieve
+    public static PrimeFilter shared() {
+        return SHARED;
+    }
+
+    public int sieveLimit() {
+        return sieve.get().limit();
+    }
+
+    public boolean isPrime(int n) {
+        return n <= maxSieveLimit ? sieveCovering(n).isPrime(n) : PrimeOracle.millerRabin(n);
+    }
+
+    //predicate for values up to max, bound to one sieve snapshot; larger values still work, slower
+    public IntPredicate upTo(int max) {
+        PrimeSieve covering = sieveCovering(Math.min(max, maxSieveLimit));
+        long[] words = covering.words();
+        int limit = covering.limit();
+        return v -> v <= limit ? isPrime(words, v) : isPrime(v);
+    }
+
+    //primes of values, in input order
+    public int[] filter(int[] values) {
+        return filter(values, ForkJoinPool.commonPool());
+    }
+
+    public int[] filter(int[] values, ForkJoinPool pool) {
+        int n = values.length;
+        int max = Integer.MIN_VALUE;
+        for (int v : values) {
+            max = Math.max(max, v);
+        }
+        if (max > maxSieveLimit) {
+            // too large for the shared sieve: sieve what fits, Miller-Rabin for the rest
+            return Arrays.stream(values).filter(upTo(max)).toArray();
+        }
+        long[] words = sieveCovering(max).words();
+        if (n < PARALLEL_THRESHOLD) {
+            int[] out = new int[n];
+            return Arrays.copyOf(out, compact(values, 0, n, words, out, 0));
+        }
+        // every block compacts into its own range of a scratch array (one sieve lookup per value),
+        // then the blocks are copied to their offsets
+        int blocks = Math.max(1, Math.min(pool.getParallelism() * 8, n / LEAF));
+        int blockSize = (n + blocks - 1) / blocks;
+        int[] scratch = new int[n];
+        int[] offsets = new int[blocks + 1];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            offsets[b + 1] = compact(values, from, to, words, scratch, from);
+        }));
+        for (int b = 0; b < blocks; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+        int[] result = new int[offsets[blocks]];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b ->
+                System.arraycopy(scratch, b * blockSize, result, offsets[b], offsets[b + 1] - offsets[b])));
+        return result;
+    }
+
+    //the stream is consumed as one batch; the result is parallel if the input was
+    public IntStream filter(IntStream values) {
+        boolean parallel = values.isParallel();
+        IntStream primes = Arrays.stream(filter(values.toArray()));
+        return parallel ? primes.parallel() : primes;
+    }
+
+    public int[] filter(List<Integer> values) {
+        return filter(values.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // branch-free: always write, advance only on a prime
+    private static int compact(int[] values, int from, int to, long[] words, int[] out, int at) {
+        int k = at;
+        for (int i = from; i < to; i++) {
+            int v = values[i];
+            out[k] = v;
+            k += isPrime(words, v) ? 1 : 0;
+        }
+        return k - at;
+    }
+
+    // bit (v >>> 1) of the odd-only table; v must not exceed the sieve limit
+    private static boolean isPrime(long[] words, int v) {
+        return v > 2 ? (v & 1) != 0 && (words[v >>> 7] & (1L << (v >>> 1))) != 0 : v == 2;
+    }
+
+    private PrimeSieve sieveCovering(int max) {
+        PrimeSieve current = sieve.get();
+        if (max <= current.limit()) {
+            return current;
+        }
+        synchronized (growLock) {
+            current = sieve.get();
+            if (max <= current.limit()) {
+                return current;
+            }
+            int target = (int) Math.min(maxSieveLimit, Math.max(max, 2L * current.limit()));
+            PrimeSieve grown = current.extendTo(target, target >= PARALLEL_SIEVE_LIMIT ? ForkJoinPool.commonPool() : null);
+            sieve.set(grown);
+            return grown;
+        }
+    }
+
+    public static void main(String[] args) {
+        PrimeFilter filter = PrimeFilter.shared();
+        List<Integer> prime = Arrays.asList(7, 6, 4, 4, 8, 10, 2, 1, -7, 97);
+        System.out.println("primes: " + Arrays.toString(filter.filter(prime)));
+
+        int[] batch = new SplittableRandom(25).ints(2_000_000, 0, 50_000_000).toArray();
+        int[] primes = filter.filter(batch);
+        System.out.printf("%,d of %,d values are prime, sieve grown to %,d%n", primes.length, batch.length,
+                filter.sieveLimit());
+        int[] expected = Arrays.stream(batch).filter(v -> PrimeOracle.millerRabin(v)).toArray();
+        System.out.println("matches Miller-Rabin: " + Arrays.equals(expected, primes));
+        System.out.println("parallel IntStream: " + filter.filter(IntStream.of(batch).parallel()).count());
+        /*
+        primes: [7, 2, 97]
+        119,770 of 2,000,000 values are prime, sieve grown to 49,999,966
+        matches Miller-Rabin: true
+        parallel IntStream: 119770
+         */
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+//prime.stream().filter(FindPrimeNumbers::isprime...) per element vs PrimeFilter on one batch of random
+//ints below 10^7:
+//  javac *.java && java PrimeFilterBenchmark [elements]
+public class PrimeFilterBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] values = new SplittableRandom(25).ints(n, 0, 10_000_000).toArray();
+        List<Integer> boxed = Arrays.stream(values).boxed().collect(Collectors.toList());
+        System.out.printf("%,d values below 10^7%n", n);
+        System.out.printf("%-40s %10s%n", "method", "ms");
+
+        Bench.report(40, "stream filter isprime (trial division)", () -> boxed.stream()
+                .filter(FindPrimeNumbers::isprime).count());
+        PrimeOracle oracle = PrimeOracle.upTo(1 << 20);
+        Bench.report(40, "stream filter PrimeOracle.isPrime", () -> boxed.stream().filter(oracle::isPrime).count());
+
+        // a fresh filter per round includes growing the sieve from scratch
+        Bench.report(40, "PrimeFilter.filter(int[]), cold", () -> new PrimeFilter(PrimeFilter.DEFAULT_MAX_SIEVE_LIMIT)
+                .filter(values).length);
+        PrimeFilter shared = PrimeFilter.shared();
+        Bench.report(40, "PrimeFilter.filter(int[]), warm", () -> shared.filter(values).length);
+        Bench.report(40, "PrimeFilter.filter(List<Integer>)", () -> shared.filter(boxed).length);
+        Bench.report(40, "PrimeFilter.filter(IntStream)", () -> shared.filter(Arrays.stream(values)).count());
+    }
+}
@@ -0,0 +1,380 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+//Radix sorts for primitive columns, ascending or descending, in place.
+//  sort: LSD radix with 8-bit digits. One pass builds the histograms of all digits, then one
+//    stable scatter per digit (ping-pong with one scratch array). A digit that is the same for every
+//    element is skipped, so small non-negative ints cost one or two passes instead of four.
+//  parallelSort: MSD on the highest digit that varies. Block histograms and the scatter into
+//    256 buckets run in parallel, then every bucket is sorted on its own: LSD on the lower digits,
+//    or another parallel MSD step when the bucket is still above the threshold (skewed data).
+//Signed values are sorted as unsigned after flipping the sign bit, and descending flips every bit,
+//so direction is a different xor mask, not a second code path. doubles are mapped to long bits that
+//order like Double.compare (negatives fully inverted, positives sign-flipped) and back, so -0.0
+//sorts before 0.0 and NaN last (or first when descending), as in Arrays.sort. NaN payloads are not
+//kept. Ranges below SMALL elements go to Arrays.sort, and a parallelSort threshold below SMALL is
+//raised to SMALL.
+public final class RadixSort {
+
+    //below this many elements parallelSort runs sort (see RadixSortBenchmark)
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private static final int SMALL = 1 << 9;
+    private static final int LEAF = 1 << 16;
+
+    private RadixSort() {
+    }
+
+    public static void sort(int[] a) {
+        sort(a, false);
+    }
+
+    public static void sort(int[] a, boolean descending) {
+        lsd(a, new int[a.length], 0, a.length, intFlip(descending), 4);
+    }
+
+    public static void sort(long[] a) {
+        sort(a, false);
+    }
+
+    public static void sort(long[] a, boolean descending) {
+        lsd(a, new long[a.length], 0, a.length, longFlip(descending), 8);
+    }
+
+    public static void sort(double[] a) {
+        sort(a, false);
+    }
+
+    public static void sort(double[] a, boolean descending) {
+        long[] keys = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            keys[i] = toKey(a[i]);
+        }
+        lsd(keys, new long[a.length], 0, a.length, descending ? -1L : 0L, 8);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = fromKey(keys[i]);
+        }
+    }
+
+    public static void parallelSort(int[] a) {
+        parallelSort(a, false, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(int[] a, boolean descending) {
+        parallelSort(a, descending, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(int[] a, boolean descending, int threshold, ForkJoinPool pool) {
+        threshold = Math.max(threshold, SMALL);
+        int[] buf = new int[a.length];
+        if (a.length < threshold) {
+            lsd(a, buf, 0, a.length, intFlip(descending), 4);
+        } else {
+            msd(a, buf, 0, a.length, intFlip(descending), 3, threshold, pool);
+        }
+    }
+
+    public static void parallelSort(long[] a) {
+        parallelSort(a, false, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(long[] a, boolean descending) {
+        parallelSort(a, descending, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(long[] a, boolean descending, int threshold, ForkJoinPool pool) {
+        threshold = Math.max(threshold, SMALL);
+        long[] buf = new long[a.length];
+        if (a.length < threshold) {
+            lsd(a, buf, 0, a.length, longFlip(descending), 8);
+        } else {
+            msd(a, buf, 0, a.length, longFlip(descending), 7, threshold, pool);
+        }
+    }
+
+    public static void parallelSort(double[] a) {
+        parallelSort(a, false, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(double[] a, boolean descending) {
+        parallelSort(a, descending, PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelSort(double[] a, boolean descending, int threshold, ForkJoinPool pool) {
+        threshold = Math.max(threshold, SMALL);
+        if (a.length < threshold) {
+            sort(a, descending);
+            return;
+        }
+        int n = a.length;
+        long[] keys = new long[n];
+        int blocks = blocks(n, pool);
+        int blockSize = (n + blocks - 1) / blocks;
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            for (int i = b * blockSize, end = Math.min(n, i + blockSize); i < end; i++) {
+                keys[i] = toKey(a[i]);
+            }
+        }));
+        msd(keys, new long[n], 0, n, descending ? -1L : 0L, 7, threshold, pool);
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            for (int i = b * blockSize, end = Math.min(n, i + blockSize); i < end; i++) {
+                a[i] = fromKey(keys[i]);
+            }
+        }));
+    }
+
+    // ascending: flip the sign bit so signed order becomes unsigned order; descending: flip all the others too
+    private static int intFlip(boolean descending) {
+        return descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+    }
+
+    private static long longFlip(boolean descending) {
+        return descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    // unsigned order of the result == Double.compare order
+    private static long toKey(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ (bits >> 63 | Long.MIN_VALUE);
+    }
+
+    private static double fromKey(long key) {
+        return Double.longBitsToDouble(key < 0 ? key ^ Long.MIN_VALUE : ~key);
+    }
+
+    private static int blocks(int n, ForkJoinPool pool) {
+        return Math.max(1, Math.min(pool.getParallelism() * 8, n / LEAF));
+    }
+
+    // sorts a[from, to) by the low `digits` bytes of (v ^ flip), unsigned; buf[from, to) is scratch
+    private static void lsd(int[] a, int[] buf, int from, int to, int flip, int digits) {
+        int n = to - from;
+        if (n < SMALL) {
+            smallSort(a, from, to, flip);
+            return;
+        }
+        int[][] counts = new int[digits][256];
+        for (int i = from; i < to; i++) {
+            int k = a[i] ^ flip;
+            for (int d = 0; d < digits; d++) {
+                counts[d][(k >>> (d * 8)) & 0xFF]++;
+            }
+        }
+        int[] src = a;
+        int[] dst = buf;
+        for (int d = 0; d < digits; d++) {
+            int shift = d * 8;
+            int[] next = counts[d];
+            if (next[((a[from] ^ flip) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            int offset = from;
+            for (int b = 0; b < 256; b++) {
+                int count = next[b];
+                next[b] = offset;
+                offset += count;
+            }
+            for (int i = from; i < to; i++) {
+                int v = src[i];
+                dst[next[((v ^ flip) >>> shift) & 0xFF]++] = v;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            System.arraycopy(src, from, a, from, n);
+        }
+    }
+
+    private static void lsd(long[] a, long[] buf, int from, int to, long flip, int digits) {
+        int n = to - from;
+        if (n < SMALL) {
+            smallSort(a, from, to, flip);
+            return;
+        }
+        int[][] counts = new int[digits][256];
+        for (int i = from; i < to; i++) {
+            long k = a[i] ^ flip;
+            for (int d = 0; d < digits; d++) {
+                counts[d][(int) (k >>> (d * 8)) & 0xFF]++;
+            }
+        }
+        long[] src = a;
+        long[] dst = buf;
+        for (int d = 0; d < digits; d++) {
+            int shift = d * 8;
+            int[] next = counts[d];
+            if (next[(int) ((a[from] ^ flip) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            int offset = from;
+            for (int b = 0; b < 256; b++) {
+                int count = next[b];
+                next[b] = offset;
+                offset += count;
+            }
+            for (int i = from; i < to; i++) {
+                long v = src[i];
+                dst[next[(int) ((v ^ flip) >>> shift) & 0xFF]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            System.arraycopy(src, from, a, from, n);
+        }
+    }
+
+    // one parallel scatter on byte `digit`, then every bucket sorted on the bytes below it
+    private static void msd(int[] a, int[] buf, int from, int to, int flip, int digit, int threshold,
+                            ForkJoinPool pool) {
+        int n = to - from;
+        int shift = digit * 8;
+        int blocks = blocks(n, pool);
+        int blockSize = (n + blocks - 1) / blocks;
+        int[][] histogram = new int[blocks][256];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int[] counts = histogram[b];
+            for (int i = from + b * blockSize, end = Math.min(to, i + blockSize); i < end; i++) {
+                counts[((a[i] ^ flip) >>> shift) & 0xFF]++;
+            }
+        }));
+        int[] bucketStart = bucketStarts(histogram, from);
+        int first = ((a[from] ^ flip) >>> shift) & 0xFF;
+        if (digit > 0 && bucketStart[first + 1] - bucketStart[first] == n) {
+            // every element has the same byte here: nothing to split on, try the next one
+            msd(a, buf, from, to, flip, digit - 1, threshold, pool);
+            return;
+        }
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int[] next = histogram[b];
+            for (int i = from + b * blockSize, end = Math.min(to, i + blockSize); i < end; i++) {
+                int v = a[i];
+                buf[next[((v ^ flip) >>> shift) & 0xFF]++] = v;
+            }
+        }));
+        pool.invoke(new ParallelArrayOps.BlockTask(0, 256, bucket -> {
+            int start = bucketStart[bucket];
+            int end = bucketStart[bucket + 1];
+            if (end == start) {
+                return;
+            }
+            System.arraycopy(buf, start, a, start, end - start);
+            if (end - start >= threshold && digit > 0) {
+                msd(a, buf, start, end, flip, digit - 1, threshold, pool);
+            } else if (digit > 0) {
+                lsd(a, buf, start, end, flip, digit);
+            }
+        }));
+    }
+
+    private static void msd(long[] a, long[] buf, int from, int to, long flip, int digit, int threshold,
+                            ForkJoinPool pool) {
+        int n = to - from;
+        int shift = digit * 8;
+        int blocks = blocks(n, pool);
+        int blockSize = (n + blocks - 1) / blocks;
+        int[][] histogram = new int[blocks][256];
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int[] counts = histogram[b];
+            for (int i = from + b * blockSize, end = Math.min(to, i + blockSize); i < end; i++) {
+                counts[(int) ((a[i] ^ flip) >>> shift) & 0xFF]++;
+            }
+        }));
+        int[] bucketStart = bucketStarts(histogram, from);
+        int first = (int) ((a[from] ^ flip) >>> shift) & 0xFF;
+        if (digit > 0 && bucketStart[first + 1] - bucketStart[first] == n) {
+            msd(a, buf, from, to, flip, digit - 1, threshold, pool);
+            return;
+        }
+        pool.invoke(new ParallelArrayOps.BlockTask(0, blocks, b -> {
+            int[] next = histogram[b];
+            for (int i = from + b * blockSize, end = Math.min(to, i + blockSize); i < end; i++) {
+                long v = a[i];
+                buf[next[(int) ((v ^ flip) >>> shift) & 0xFF]++] = v;
+            }
+        }));
+        pool.invoke(new ParallelArrayOps.BlockTask(0, 256, bucket -> {
+            int start = bucketStart[bucket];
+            int end = bucketStart[bucket + 1];
+            if (end == start) {
+                return;
+            }
+            System.arraycopy(buf, start, a, start, end - start);
+            if (end - start >= threshold && digit > 0) {
+                msd(a, buf, start, end, flip, digit - 1, threshold, pool);
+            } else if (digit > 0) {
+                lsd(a, buf, start, end, flip, digit);
+            }
+        }));
+    }
+
+    // bucket-major exclusive prefix sum: histogram[b][d] becomes where block b writes its first
+    // element of bucket d; returns the 257 bucket boundaries
+    private static int[] bucketStarts(int[][] histogram, int from) {
+        int[] bucketStart = new int[257];
+        int offset = from;
+        for (int d = 0; d < 256; d++) {
+            bucketStart[d] = offset;
+            for (int[] counts : histogram) {
+                int count = counts[d];
+                counts[d] = offset;
+                offset += count;
+            }
+        }
+        bucketStart[256] = offset;
+        return bucketStart;
+    }
+
+    // xor with flip ^ sign bit turns "unsigned order of v ^ flip" into plain signed order
+    private static void smallSort(int[] a, int from, int to, int flip) {
+        int c = flip ^ Integer.MIN_VALUE;
+        if (c == 0) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) a[i] ^= c;
+        Arrays.sort(a, from, to);
+        for (int i = from; i < to; i++) a[i] ^= c;
+    }
+
+    private static void smallSort(long[] a, int from, int to, long flip) {
+        long c = flip ^ Long.MIN_VALUE;
+        if (c == 0) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) a[i] ^= c;
+        Arrays.sort(a, from, to);
+        for (int i = from; i < to; i++) a[i] ^= c;
+    }
+
+    public static void main(String[] args) {
+        int[] ints = {5, -3, 0, Integer.MIN_VALUE, 42, -3, Integer.MAX_VALUE};
+        sort(ints);
+        System.out.println(Arrays.toString(ints));
+        sort(ints, true);
+        System.out.println(Arrays.toString(ints));
+
+        double[] decimals = {22.2, 23.4, 55.7, 7.8, 66.8, -0.0, 0.0, -1.5, Double.NaN, Double.NEGATIVE_INFINITY};
+        sort(decimals);
+        System.out.println(Arrays.toString(decimals));
+        sort(decimals, true);
+        System.out.println(Arrays.toString(decimals));
+
+        long[] big = new java.util.SplittableRandom(23).longs(3_000_000).toArray();
+        long[] expected = big.clone();
+        Arrays.sort(expected);
+        parallelSort(big);
+        System.out.println("parallel MSD on 3M longs matches Arrays.sort: " + Arrays.equals(big, expected));
+        /*
+        [-2147483648, -3, -3, 0, 5, 42, 2147483647]
+        [2147483647, 42, 5, 0, -3, -3, -2147483648]
+        [-Infinity, -1.5, -0.0, 0.0, 7.8, 22.2, 23.4, 55.7, 66.8, NaN]
+        [NaN, 66.8, 55.7, 23.4, 22.2, 7.8, 0.0, -0.0, -1.5, -Infinity]
+        parallel MSD on 3M longs matches Arrays.sort: true
+         */
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+//Arrays.sort / Arrays.parallelSort / RadixSort.sort / RadixSort.parallelSort on int[], long[] and
+//double[], plus SortAlistOfDecimals' boxed List<Double> stream sort:
+//  javac *.java && java RadixSortBenchmark [elements]
+public class RadixSortBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        SplittableRandom random = new SplittableRandom(23);
+        int[] ints = random.ints(n).toArray();
+        int[] smallInts = random.ints(n, 0, 100_000).toArray();
+        long[] longs = random.longs(n).toArray();
+        double[] doubles = random.doubles(n).map(d -> Math.round(d * 1_000_000) / 100.0).toArray();
+        List<Double> boxed = Arrays.stream(doubles).boxed().collect(Collectors.toList());
+        System.out.printf("%,d elements, %d processors%n", n, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-36s %10s%n", "method", "ms");
+
+        report("int: Arrays.sort", () -> { int[] a = ints.clone(); Arrays.sort(a); return a[n / 2]; });
+        report("int: Arrays.parallelSort", () -> { int[] a = ints.clone(); Arrays.parallelSort(a); return a[n / 2]; });
+        report("int: RadixSort.sort", () -> { int[] a = ints.clone(); RadixSort.sort(a); return a[n / 2]; });
+        report("int: RadixSort.parallelSort", () -> { int[] a = ints.clone(); RadixSort.parallelSort(a); return a[n / 2]; });
+        report("int 0..1e5: Arrays.sort", () -> { int[] a = smallInts.clone(); Arrays.sort(a); return a[n / 2]; });
+        report("int 0..1e5: RadixSort.sort", () -> { int[] a = smallInts.clone(); RadixSort.sort(a); return a[n / 2]; });
+
+        report("long: Arrays.sort", () -> { long[] a = longs.clone(); Arrays.sort(a); return a[n / 2]; });
+        report("long: Arrays.parallelSort", () -> { long[] a = longs.clone(); Arrays.parallelSort(a); return a[n / 2]; });
+        report("long: RadixSort.sort", () -> { long[] a = longs.clone(); RadixSort.sort(a); return a[n / 2]; });
+        report("long: RadixSort.parallelSort", () -> { long[] a = longs.clone(); RadixSort.parallelSort(a); return a[n / 2]; });
+
+        report("double: Arrays.sort", () -> { double[] a = doubles.clone(); Arrays.sort(a); return a[n / 2]; });
+        report("double: Arrays.parallelSort", () -> { double[] a = doubles.clone(); Arrays.parallelSort(a); return a[n / 2]; });
+        report("double: RadixSort.sort", () -> { double[] a = doubles.clone(); RadixSort.sort(a); return a[n / 2]; });
+        report("double: RadixSort.parallelSort", () -> { double[] a = doubles.clone(); RadixSort.parallelSort(a); return a[n / 2]; });
+        report("double desc: boxed stream sorted", () -> boxed.stream().sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList()).get(n / 2));
+        report("double desc: RadixSort.sort", () -> { double[] a = doubles.clone(); RadixSort.sort(a, true); return a[n / 2]; });
+    }
+
+    private static void report(String name, Bench.Task<?, RuntimeException> run) {
+        Bench.report(36, name, run);
+    }
+}
@@ -0,0 +1,30 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+//Converts keys / values to bytes for OffHeapLRUCatch.
+public interface Serializer<T> {
+
+    byte[] serialize(T value);
+
+    T deserialize(byte[] bytes);
+
+    Serializer<byte[]> BYTES = new Serializer<>() {
+        public byte[] serialize(byte[] value) { return value; }
+        public byte[] deserialize(byte[] bytes) { return bytes; }
+    };
+
+    Serializer<String> STRING = new Serializer<>() {
+        public byte[] serialize(String value) { return value.getBytes(StandardCharsets.UTF_8); }
+        public String deserialize(byte[] bytes) { return new String(bytes, StandardCharsets.UTF_8); }
+    };
+
+    Serializer<Integer> INT = new Serializer<>() {
+        public byte[] serialize(Integer value) { return ByteBuffer.allocate(4).putInt(0, value).array(); }
+        public Integer deserialize(byte[] bytes) { return ByteBuffer.wrap(bytes).getInt(0); }
+    };
+
+    Serializer<Long> LONG = new Serializer<>() {
+        public byte[] serialize(Long value) { return ByteBuffer.allocate(8).putLong(0, value).array(); }
+        public Long deserialize(byte[] bytes) { return ByteBuffer.wrap(bytes).getLong(0); }
+    };
+}
@@ -0,0 +1,98 @@
+import java.util.function.Consumer;
+
+//Hierarchical timing wheel for LRUCatch expiry. Five levels of 64 buckets; a bucket on level i
+//spans 2^SHIFT[i] ns (~1ms, ~67ms, ~4.3s, ~4.6min, ~4.9h), so level i covers what one bucket of
+//level i+1 holds. schedule/deschedule are O(1); advance only visits the buckets whose tick has
+//passed and cascades not-yet-due entries down to finer levels, so expiry is O(1) amortized
+//instead of a scan over the whole cache.
+public class TimerWheel<K, V> {
+
+    private static final int[] SHIFT = {20, 26, 32, 38, 44};
+    private static final int BUCKETS = 64;
+    private static final int MASK = BUCKETS - 1;
+
+    private final LRUCatch.Node<K, V>[][] wheel;
+    private long nanos;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long now) {
+        this.nanos = now;
+        this.wheel = (LRUCatch.Node<K, V>[][]) new LRUCatch.Node<?, ?>[SHIFT.length][BUCKETS];
+        for (LRUCatch.Node<K, V>[] level : wheel) {
+            for (int j = 0; j < BUCKETS; j++) {
+                LRUCatch.Node<K, V> sentinel = new LRUCatch.Node<>(null, null);
+                sentinel.timerPrev = sentinel;
+                sentinel.timerNext = sentinel;
+                level[j] = sentinel;
+            }
+        }
+    }
+
+    //file node under node.expiresAt (re-filing an already scheduled node is fine)
+    public void schedule(LRUCatch.Node<K, V> node) {
+        deschedule(node);
+        long delay = node.expiresAt - nanos;
+        int level = SHIFT.length - 1;
+        for (int i = 0; i < SHIFT.length - 1; i++) {
+            if (delay < (1L << SHIFT[i + 1])) {
+                level = i;
+                break;
+            }
+        }
+        // overdue entries go to the current bucket, which is swept on the next tick
+        long when = Math.max(node.expiresAt, nanos);
+        LRUCatch.Node<K, V> sentinel = wheel[level][(int) (when >> SHIFT[level]) & MASK];
+        LRUCatch.Node<K, V> last = sentinel.timerPrev;
+        node.timerPrev = last;
+        node.timerNext = sentinel;
+        last.timerNext = node;
+        sentinel.timerPrev = node;
+    }
+
+    public void deschedule(LRUCatch.Node<K, V> node) {
+        if (node.timerNext != null) {
+            node.timerPrev.timerNext = node.timerNext;
+            node.timerNext.timerPrev = node.timerPrev;
+            node.timerPrev = null;
+            node.timerNext = null;
+        }
+    }
+
+    //move the clock to now; entries that are due are handed to expire
+    public void advance(long now, Consumer<LRUCatch.Node<K, V>> expire) {
+        long previous = nanos;
+        nanos = now;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previous >> SHIFT[i];
+            long delta = (now >> SHIFT[i]) - previousTicks;
+            if (delta <= 0) {
+                // a coarser level can only turn over after this one did
+                break;
+            }
+            expireBuckets(i, previousTicks, delta, expire);
+        }
+    }
+
+    private void expireBuckets(int level, long previousTicks, long delta, Consumer<LRUCatch.Node<K, V>> expire) {
+        int start = (int) (previousTicks & MASK);
+        int end = start + (int) Math.min(delta, MASK);
+        for (int j = start; j <= end; j++) {
+            LRUCatch.Node<K, V> sentinel = wheel[level][j & MASK];
+            // detach the whole bucket first, rescheduled nodes may come back to it
+            LRUCatch.Node<K, V> node = sentinel.timerNext;
+            sentinel.timerPrev = sentinel;
+            sentinel.timerNext = sentinel;
+            while (node != sentinel) {
+                LRUCatch.Node<K, V> next = node.timerNext;
+                node.timerPrev = null;
+                node.timerNext = null;
+                if (node.expiresAt - nanos <= 0) {
+                    expire.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.function.Consumer;
+
+//W-TinyLFU: new entries land in a small LRU window (1% of capacity). When the window
+//overflows its eldest entry becomes a candidate for the main segmented LRU
+//(20% probation, 80% protected) and is only admitted if the FrequencySketch says it is
+//more popular than the main space's victim. A one-off scan therefore only churns the window.
+public class TinyLfuPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final LRUCatch.NodeList<K, V> window = new LRUCatch.NodeList<>();
+    private final LRUCatch.NodeList<K, V> probation = new LRUCatch.NodeList<>();
+    private final LRUCatch.NodeList<K, V> protectedQueue = new LRUCatch.NodeList<>();
+    private final FrequencySketch sketch;
+    private final int maxWindow;
+    private final int maxProtected;
+    // window eldest moved to probation by the last insert, waiting for its admission check
+    private LRUCatch.Node<K, V> candidate;
+
+    public TinyLfuPolicy(int capacity) {
+        this.maxWindow = Math.max(1, capacity / 100);
+        int maxMain = capacity - maxWindow;
+        this.maxProtected = (int) (maxMain * 0.8);
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onInsert(LRUCatch.Node<K, V> node) {
+        sketch.increment(node.key);
+        window.linkLast(node);
+        // window overflow moves its eldest to the tail of probation, where it waits as a candidate
+        if (window.size() > maxWindow) {
+            candidate = window.first();
+            window.unlink(candidate);
+            probation.linkLast(candidate);
+        }
+    }
+
+    @Override
+    public void onAccess(LRUCatch.Node<K, V> node) {
+        sketch.increment(node.key);
+        if (node.owner == probation) {
+            // second hit in main space: promote, demote protected's eldest if it is full
+            probation.unlink(node);
+            protectedQueue.linkLast(node);
+            if (protectedQueue.size() > maxProtected) {
+                LRUCatch.Node<K, V> demoted = protectedQueue.first();
+                protectedQueue.unlink(demoted);
+                probation.linkLast(demoted);
+            }
+        } else {
+            node.owner.moveToTail(node);
+        }
+    }
+
+    @Override
+    public void onRemove(LRUCatch.Node<K, V> node) {
+        if (node == candidate) {
+            candidate = null;
+        }
+        node.owner.unlink(node);
+    }
+
+    @Override
+    public LRUCatch.Node<K, V> evict() {
+        // candidate: the entry the window just gave up (not probation's tail, which may be a
+        // demoted protected entry), victim: eldest entry of probation
+        LRUCatch.Node<K, V> candidate = this.candidate;
+        this.candidate = null;
+        if (candidate != null && candidate.owner != probation) {
+            candidate = null;
+        }
+        LRUCatch.Node<K, V> victim = probation.first();
+        if (victim == candidate) {
+            if (probation.size() > 1) {
+                victim = candidate.next;
+            } else if (!protectedQueue.isEmpty()) {
+                victim = protectedQueue.first();
+            }
+        }
+        if (victim == null) {
+            victim = window.first();
+        }
+
+        // admission: keep whichever of candidate / victim is used more often
+        LRUCatch.Node<K, V> loser = victim;
+        if (candidate != null && candidate != victim
+                && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            loser = candidate;
+        }
+        loser.owner.unlink(loser);
+        return loser;
+    }
+
+    @Override
+    public void forEach(Consumer<LRUCatch.Node<K, V>> action) {
+        window.forEach(action);
+        probation.forEach(action);
+        protectedQueue.forEach(action);
+    }
+
+    @Override
+    public String name() {
+        return "W-TinyLFU";
+    }
+}
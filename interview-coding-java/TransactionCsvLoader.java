@@ -0,0 +1,273 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Parallel loader for "yyyy-MM-dd,amount" CSV files into per-day totals.
+//The file is cut into byte ranges whose boundaries are moved to the next line start, every range
+//is memory-mapped and parsed by its own task into its own DailyTotalsMap, and the maps are
+//merged at the end. Dates and amounts are parsed straight from the ASCII bytes (no String,
+//no LocalDate, no Double.parseDouble), so a task allocates nothing per line.
+//Lines that do not start with a digit (header, '#' comments, blank lines) are skipped.
+//  javac *.java && java TransactionCsvLoader [file.csv]   (prints per-day totals; demo file without)
+public final class TransactionCsvLoader {
+
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1 << 28;   // a mapping must stay below 2GB
+
+    private TransactionCsvLoader() {
+    }
+
+    public static DailyTotalsMap load(Path file) throws IOException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    public static DailyTotalsMap load(Path file, ForkJoinPool pool) throws IOException {
+        long size = Files.size(file);
+        return load(file, pool, Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4L) + 1)));
+    }
+
+    static DailyTotalsMap load(Path file, ForkJoinPool pool, long chunk) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // boundaries[i] is the first byte of a line; range i is [boundaries[i], boundaries[i + 1])
+            List<Long> boundaries = new ArrayList<>();
+            boundaries.add(0L);
+            for (long at = chunk; at < size; at += chunk) {
+                long start = nextLineStart(channel, at, size);
+                if (start > boundaries.get(boundaries.size() - 1) && start < size) {
+                    boundaries.add(start);
+                }
+                at = Math.max(at, start);
+            }
+            boundaries.add(size);
+
+            List<ForkJoinTask<DailyTotalsMap>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.size(); i++) {
+                long from = boundaries.get(i);
+                long to = boundaries.get(i + 1);
+                tasks.add(pool.submit(() -> parseRange(channel, from, to)));
+            }
+            DailyTotalsMap totals = new DailyTotalsMap(512);
+            for (ForkJoinTask<DailyTotalsMap> task : tasks) {
+                totals.merge(task.join());
+            }
+            return totals;
+        }
+    }
+
+    // first position after the '\n' at or after at - 1, so a range never starts mid-line
+    private static long nextLineStart(FileChannel channel, long at, long size) throws IOException {
+        long pos = at - 1;
+        while (pos < size) {
+            int window = (int) Math.min(4096, size - pos);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, pos, window);
+            for (int i = 0; i < window; i++) {
+                if (bytes.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += window;
+        }
+        return size;
+    }
+
+    private static DailyTotalsMap parseRange(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        DailyTotalsMap totals = new DailyTotalsMap(512);
+        int n = (int) (to - from);
+        int i = 0;
+        while (i < n) {
+            byte first = bytes.get(i);
+            if (first < '0' || first > '9') {
+                i = skipLine(bytes, i, n);
+                continue;
+            }
+            // yyyy-MM-dd
+            if (i + 10 > n || bytes.get(i + 4) != '-' || bytes.get(i + 7) != '-') {
+                throw malformed(from + i);
+            }
+            int year = digits(bytes, i, 4, from);
+            int month = digits(bytes, i + 5, 2, from);
+            int day = digits(bytes, i + 8, 2, from);
+            if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                throw malformed(from + i);
+            }
+            i += 10;
+            while (i < n && bytes.get(i) == ' ') i++;
+            if (i >= n || bytes.get(i) != ',') {
+                throw malformed(from + i);
+            }
+            i++;
+            while (i < n && bytes.get(i) == ' ') i++;
+
+            // [-]digits[.digits], rounded HALF_EVEN to cents like Cents.of
+            boolean negative = false;
+            if (i < n && (bytes.get(i) == '-' || bytes.get(i) == '+')) {
+                negative = bytes.get(i) == '-';
+                i++;
+            }
+            long cents = 0;
+            int start = i;
+            while (i < n && bytes.get(i) >= '0' && bytes.get(i) <= '9') {
+                cents = Math.addExact(Math.multiplyExact(cents, 10), bytes.get(i) - '0');
+                i++;
+            }
+            int integerDigits = i - start;
+            int fractionDigits = 0;
+            int roundDigit = 0;
+            boolean sticky = false;
+            if (i < n && bytes.get(i) == '.') {
+                i++;
+                while (i < n && bytes.get(i) >= '0' && bytes.get(i) <= '9') {
+                    int d = bytes.get(i) - '0';
+                    if (fractionDigits < 2) {
+                        cents = cents * 10 + d;
+                    } else if (fractionDigits == 2) {
+                        roundDigit = d;
+                    } else {
+                        sticky |= d != 0;
+                    }
+                    fractionDigits++;
+                    i++;
+                }
+            }
+            if (integerDigits + fractionDigits == 0) {
+                throw malformed(from + i);
+            }
+            for (int f = fractionDigits; f < 2; f++) {
+                cents *= 10;
+            }
+            if (roundDigit > 5 || (roundDigit == 5 && (sticky || (cents & 1) != 0))) {
+                cents++;
+            }
+            while (i < n && (bytes.get(i) == ' ' || bytes.get(i) == '\r')) i++;
+            if (i < n && bytes.get(i) != '\n') {
+                throw malformed(from + i);
+            }
+            i++;
+            totals.addCents(epochDay(year, month, day), negative ? -cents : cents);
+        }
+        return totals;
+    }
+
+    private static int skipLine(MappedByteBuffer bytes, int i, int n) {
+        while (i < n && bytes.get(i) != '\n') i++;
+        return i + 1;
+    }
+
+    private static int digits(MappedByteBuffer bytes, int at, int count, long base) {
+        int value = 0;
+        for (int k = 0; k < count; k++) {
+            int d = bytes.get(at + k) - '0';
+            if (d < 0 || d > 9) {
+                throw malformed(base + at + k);
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static IllegalArgumentException malformed(long offset) {
+        return new IllegalArgumentException("malformed transaction line at byte " + offset);
+    }
+
+    //days since 1970-01-01 for a proleptic Gregorian date, same as LocalDate.toEpochDay
+    static int epochDay(int year, int month, int day) {
+        // shift the year to start in March so the leap day is the last day of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    //synthetic data: rows lines over `days` days from startDay, amounts 0.01 .. 9999.99
+    public static void generate(Path file, long rows, LocalDate startDay, int days, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] line = new byte[32];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write("date,amount\n".getBytes());
+            for (long r = 0; r < rows; r++) {
+                LocalDate date = startDay.plusDays(random.nextInt(days));
+                int len = format(date, random.nextInt(1, 1_000_000), line);
+                out.write(line, 0, len);
+            }
+        }
+    }
+
+    private static int format(LocalDate date, int cents, byte[] line) {
+        int i = 0;
+        i = put(line, i, date.getYear(), 4);
+        line[i++] = '-';
+        i = put(line, i, date.getMonthValue(), 2);
+        line[i++] = '-';
+        i = put(line, i, date.getDayOfMonth(), 2);
+        line[i++] = ',';
+        String whole = Integer.toString(cents / 100);
+        for (int k = 0; k < whole.length(); k++) {
+            line[i++] = (byte) whole.charAt(k);
+        }
+        line[i++] = '.';
+        i = put(line, i, cents % 100, 2);
+        line[i++] = '\n';
+        return i;
+    }
+
+    private static int put(byte[] line, int i, int value, int width) {
+        for (int k = width - 1; k >= 0; k--) {
+            line[i + k] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return i + width;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // with a file argument: per-day totals of that "yyyy-MM-dd,amount" file
+        if (args.length > 0) {
+            load(Path.of(args[0])).forEachSorted((day, count, sum, min, max) ->
+                    System.out.println(LocalDate.ofEpochDay(day) + " " + sum));
+            return;
+        }
+        Path file = Files.createTempFile("transactions", ".csv");
+        try {
+            Files.writeString(file, """
+                    date,amount
+                    2025-08-30,100.50
+                    2025-08-30,200.75
+                    # refunds are negative
+                    2025-08-31,50
+                    2025-08-31,75.25
+                    2025-08-31,-0.005
+                    2025-09-01,500.00
+                    """);
+            load(file).forEachSorted((day, count, sum, min, max) ->
+                    System.out.println(LocalDate.ofEpochDay(day) + " " + sum + " (count " + count + ")"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        /*
+        2025-08-30 301.25 (count 2)
+        2025-08-31 125.25 (count 3)
+        2025-09-01 500.0 (count 1)
+         */
+    }
+}
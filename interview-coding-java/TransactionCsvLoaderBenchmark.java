@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//Ingestion throughput of TransactionCsvLoader on a synthetic CSV, against the usual
+//Files.lines + split + LocalDate.parse + BigDecimal pipeline:
+//  javac *.java && java TransactionCsvLoaderBenchmark            (10M rows, ~190MB)
+//  javac *.java && java TransactionCsvLoaderBenchmark 50000000
+public class TransactionCsvLoaderBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        Path file = Files.createTempFile("transactions-bench", ".csv");
+        try {
+            TransactionCsvLoader.generate(file, rows, LocalDate.of(2020, 1, 1), 5 * 365, 42);
+            long bytes = Files.size(file);
+            int cores = Runtime.getRuntime().availableProcessors();
+            System.out.printf("%,d rows, %,d bytes, %d cores%n", rows, bytes, cores);
+            System.out.printf("%-22s %10s %10s%n", "loader", "ms", "MB/s");
+
+            Map<LocalDate, Long> expected = new HashMap<>();
+            long best = Bench.best(0, 2, () -> {
+                try (Stream<String> lines = Files.lines(file)) {
+                    return lines.skip(1).map(line -> line.split(",")).collect(Collectors.groupingBy(
+                            parts -> LocalDate.parse(parts[0]),
+                            Collectors.summingLong(parts -> Cents.of(new BigDecimal(parts[1])))));
+                }
+            }, expected::putAll);
+            print("lines+parse", best, bytes);
+
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                best = Bench.best(Bench.WARMUP, Bench.ROUNDS, () -> TransactionCsvLoader.load(file, pool),
+                        totals -> check(totals, expected));
+                pool.shutdown();
+                print("chunked x" + threads, best, bytes);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void check(DailyTotalsMap totals, Map<LocalDate, Long> expected) {
+        if (totals.size() != expected.size()) {
+            throw new IllegalStateException("day count differs: " + totals.size() + " vs " + expected.size());
+        }
+        expected.forEach((date, cents) -> {
+            if (totals.sumCents((int) date.toEpochDay()) != cents) {
+                throw new IllegalStateException("total differs on " + date);
+            }
+        });
+    }
+
+    private static void print(String name, long nanos, long bytes) {
+        System.out.printf("%-22s %10.1f %10.0f%n", name, nanos / 1e6, bytes / (nanos / 1e9) / (1 << 20));
+    }
+}
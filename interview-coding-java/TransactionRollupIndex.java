@@ -0,0 +1,227 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+//Pre-aggregated totals per epoch-day for dashboard queries (day / week / month / any range).
+//Two Fenwick trees (binary indexed trees) over day offsets from firstDay hold amount in cents and
+//transaction count, so a range total is two prefix sums: O(log days), no matter how many
+//transactions are behind it. A late transaction is one O(log days) point update.
+//Days outside the covered span grow it (amortized doubling, O(days) rebuild from the per-day values).
+public class TransactionRollupIndex {
+
+    public enum Bucket {DAY, WEEK, MONTH}
+
+    private int firstDay;
+    private long[] dayCents;   // plain per-day values, kept for point reads and rebuilds
+    private long[] dayCounts;
+    private long[] centsTree;  // 1-based Fenwick arrays, tree[i] covers (i - lowbit(i), i]
+    private long[] countTree;
+    private boolean empty = true;
+
+    public TransactionRollupIndex() {
+        this(64);
+    }
+
+    public TransactionRollupIndex(int expectedDays) {
+        allocate(Math.max(1, expectedDays));
+    }
+
+    public static TransactionRollupIndex of(List<TransactionSummary.Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new TransactionRollupIndex();
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (TransactionSummary.Transaction t : transactions) {
+            int day = (int) t.getDate().toEpochDay();
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+        TransactionRollupIndex index = new TransactionRollupIndex(max - min + 1);
+        index.firstDay = min;
+        index.empty = false;
+        // fill the per-day values first, then build both trees in O(days) instead of O(n log days)
+        for (TransactionSummary.Transaction t : transactions) {
+            int i = (int) t.getDate().toEpochDay() - min;
+            index.dayCents[i] = Math.addExact(index.dayCents[i], t.getAmountCents());
+            index.dayCounts[i]++;
+        }
+        index.rebuild();
+        return index;
+    }
+
+    public void add(TransactionSummary.Transaction t) {
+        addCents((int) t.getDate().toEpochDay(), t.getAmountCents());
+    }
+
+    //O(log days) unless epochDay is outside the covered span
+    public void addCents(int epochDay, long cents) {
+        if (empty) {
+            firstDay = epochDay;
+            empty = false;
+        }
+        ensureCovers(epochDay);
+        int i = epochDay - firstDay;
+        dayCents[i] = Math.addExact(dayCents[i], cents);
+        dayCounts[i]++;
+        for (int j = i + 1; j <= dayCents.length; j += j & -j) {
+            centsTree[j] += cents;
+            countTree[j]++;
+        }
+    }
+
+    //total of from..to inclusive
+    public long sumCents(LocalDate from, LocalDate to) {
+        return rangeSum(centsTree, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public long count(LocalDate from, LocalDate to) {
+        return rangeSum(countTree, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public long daySumCents(LocalDate day) {
+        int i = (int) day.toEpochDay() - firstDay;
+        return empty || i < 0 || i >= dayCents.length ? 0 : dayCents[i];
+    }
+
+    //ISO week (Monday..Sunday) containing day
+    public long weekSumCents(LocalDate day) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return sumCents(monday, monday.plusDays(6));
+    }
+
+    public long monthSumCents(YearMonth month) {
+        return sumCents(month.atDay(1), month.atEndOfMonth());
+    }
+
+    //bucket start -> total cents for every bucket overlapping from..to (clipped to the range), in date order
+    public Map<LocalDate, Long> rollup(LocalDate from, LocalDate to, Bucket bucket) {
+        Map<LocalDate, Long> out = new LinkedHashMap<>();
+        LocalDate start = from;
+        while (!start.isAfter(to)) {
+            LocalDate next = switch (bucket) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+                case MONTH -> start.with(TemporalAdjusters.firstDayOfNextMonth());
+            };
+            LocalDate end = next.minusDays(1).isAfter(to) ? to : next.minusDays(1);
+            out.put(start, sumCents(start, end));
+            start = next;
+        }
+        return out;
+    }
+
+    private long rangeSum(long[] tree, int fromDay, int toDay) {
+        if (empty) {
+            return 0;
+        }
+        // clip to the covered span; days outside it have no transactions
+        int lo = Math.max(fromDay - firstDay, 0);
+        int hi = (int) Math.min((long) toDay - firstDay, dayCents.length - 1L);
+        if (lo > hi) {
+            return 0;
+        }
+        return prefix(tree, hi + 1) - prefix(tree, lo);
+    }
+
+    // sum of the first n days
+    private static long prefix(long[] tree, int n) {
+        long sum = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void ensureCovers(int epochDay) {
+        long lo = Math.min(firstDay, epochDay);
+        long hi = Math.max((long) firstDay + dayCents.length - 1, epochDay);
+        if (lo == firstDay && hi == (long) firstDay + dayCents.length - 1) {
+            return;
+        }
+        // grow towards the side that overflowed, at least doubling
+        int span = (int) Math.max(hi - lo + 1, 2L * dayCents.length);
+        int newFirst = epochDay < firstDay ? (int) (hi - span + 1) : firstDay;
+        long[] oldCents = dayCents;
+        long[] oldCounts = dayCounts;
+        int shift = firstDay - newFirst;
+        allocate(span);
+        System.arraycopy(oldCents, 0, dayCents, shift, oldCents.length);
+        System.arraycopy(oldCounts, 0, dayCounts, shift, oldCounts.length);
+        firstDay = newFirst;
+        rebuild();
+    }
+
+    // O(days) bottom-up construction: each node pushes its total to its parent
+    private void rebuild() {
+        int n = dayCents.length;
+        Arrays.fill(centsTree, 0);
+        Arrays.fill(countTree, 0);
+        for (int i = 1; i <= n; i++) {
+            centsTree[i] += dayCents[i - 1];
+            countTree[i] += dayCounts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n) {
+                centsTree[parent] += centsTree[i];
+                countTree[parent] += countTree[i];
+            }
+        }
+    }
+
+    private void allocate(int days) {
+        dayCents = new long[days];
+        dayCounts = new long[days];
+        centsTree = new long[days + 1];
+        countTree = new long[days + 1];
+    }
+
+    public static void main(String[] args) {
+        List<TransactionSummary.Transaction> transactions = List.of(
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 100.50),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 30), 200.75),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 50.00),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 8, 31), 75.25),
+                new TransactionSummary.Transaction(LocalDate.of(2025, 9, 1), 500.00)
+        );
+        TransactionRollupIndex index = TransactionRollupIndex.of(transactions);
+        System.out.println("Aug 31: " + Cents.format(index.daySumCents(LocalDate.of(2025, 8, 31))));
+        System.out.println("week of Sep 1: " + Cents.format(index.weekSumCents(LocalDate.of(2025, 9, 1))));
+        System.out.println("August: " + Cents.format(index.monthSumCents(YearMonth.of(2025, 8))));
+
+        // a late transaction is one point update
+        index.add(new TransactionSummary.Transaction(LocalDate.of(2025, 7, 15), 20.00));
+        index.rollup(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 9, 30), Bucket.MONTH).forEach((month, cents) ->
+                System.out.println("month " + month + ": " + Cents.format(cents)));
+
+        // 30 years of daily history: query cost does not depend on how much is behind it
+        TransactionRollupIndex big = new TransactionRollupIndex();
+        SplittableRandom random = new SplittableRandom(5);
+        int start = (int) LocalDate.of(1996, 1, 1).toEpochDay();
+        for (int i = 0; i < 2_000_000; i++) {
+            big.addCents(start + random.nextInt(30 * 365), random.nextInt(1, 1_000_000));
+        }
+        long sink = 0;
+        int queries = 1_000_000;
+        long t0 = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            LocalDate from = LocalDate.ofEpochDay(start + random.nextInt(30 * 365));
+            sink += big.sumCents(from, from.plusDays(random.nextInt(1, 400)));
+        }
+        System.out.printf("random range query: %.0f ns (%d)%n", (System.nanoTime() - t0) / (double) queries, sink & 1);
+        /*
+        Aug 31: 125.25
+        week of Sep 1: 500.00
+        August: 426.50
+        month 2025-07-01: 20.00
+        month 2025-08-01: 426.50
+        month 2025-09-01: 500.00
+        random range query: ~240 ns (varies by machine)
+         */
+    }
+}
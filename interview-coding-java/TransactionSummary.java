@@ -1,3 +1,5 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -9,11 +11,20 @@ public class TransactionSummary {
     // Inner class for Transaction
     static class Transaction {
         private LocalDate date;
-        private double amount;
+        private long amountCents;
 
         public Transaction(LocalDate date, double amount) {
+            // HALF_EVEN to whole cents, same rounding as Cents.of
+            this(date, BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+        }
+
+        private Transaction(LocalDate date, long amountCents) {
             this.date = date;
-            this.amount = amount;
+            this.amountCents = amountCents;
+        }
+
+        public static Transaction ofCents(LocalDate date, long amountCents) {
+            return new Transaction(date, amountCents);
         }
 
         public LocalDate getDate() {
@@ -21,7 +32,12 @@ public class TransactionSummary {
         }
 
         public double getAmount() {
-            return amount;
+            return amountCents / 100.0;
+        }
+
+        //exact amount, use this for sums
+        public long getAmountCents() {
+            return amountCents;
         }
     }
     public static void main(String[] args) {
@@ -35,5 +51,11 @@ public class TransactionSummary {
 
         transactions.stream().collect(Collectors.groupingBy(Transaction::getDate, LinkedHashMap::new,Collectors.summingDouble(Transaction::getAmount))
         ).entrySet().stream().forEach(res->System.out.println(res.getKey() +" "+res.getValue()));
+
+        /*
+        2025-08-30 301.25
+        2025-08-31 125.25
+        2025-09-01 500.0
+         */
     }
 }
@@ -0,0 +1,97 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+//SIMD versions of the ArrayBulkKernels operations (Vector API, incubating in JDK 17).
+//Kept in its own folder so that javac *.java in the parent folder builds without the incubator
+//module. Build it on top of the parent's classes and run with the module added:
+//  javac -d out *.java && javac -d out -cp out --add-modules jdk.incubator.vector vector/*.java
+//  java -cp out --add-modules jdk.incubator.vector ArrayKernelsBenchmark
+//ArrayBulkKernels falls back to scalar loops when the module or this class is not there.
+//Loop tails shorter than one vector are scalar.
+class ArrayVectorKernels implements ArrayBulkKernels.Kernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorShuffle<Integer> REVERSE = VectorShuffle.fromOp(SPECIES, i -> LANES - 1 - i);
+
+    @Override
+    public int[] replaceAll(int[] arr, int oldValue, int newValue) {
+        int bound = SPECIES.loopBound(arr.length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            IntVector v = IntVector.fromArray(SPECIES, arr, i);
+            VectorMask<Integer> hit = v.compare(VectorOperators.EQ, oldValue);
+            if (hit.anyTrue()) {
+                v.blend(newValue, hit).intoArray(arr, i);
+            }
+        }
+        for (; i < arr.length; i++) {
+            if (arr[i] == oldValue) arr[i] = newValue;
+        }
+        return arr;
+    }
+
+    //JDK 17 has no lane compress, so: vector count pass, then whole vectors without a match
+    //are stored in one go and only vectors that contain the value are compacted lane by lane
+    @Override
+    public int[] deleteAll(int[] arr, int value) {
+        int bound = SPECIES.loopBound(arr.length);
+        int count = 0;
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            count += IntVector.fromArray(SPECIES, arr, i).compare(VectorOperators.EQ, value).trueCount();
+        }
+        for (; i < arr.length; i++) {
+            if (arr[i] == value) count++;
+        }
+
+        int[] result = new int[arr.length - count];
+        int j = 0;
+        i = 0;
+        // j + LANES <= result.length keeps the full-vector store in bounds
+        for (; i < bound && j + LANES <= result.length; i += LANES) {
+            IntVector v = IntVector.fromArray(SPECIES, arr, i);
+            if (!v.compare(VectorOperators.EQ, value).anyTrue()) {
+                v.intoArray(result, j);
+                j += LANES;
+            } else {
+                for (int k = i; k < i + LANES; k++) {
+                    int x = arr[k];
+                    if (x != value) result[j++] = x;
+                }
+            }
+        }
+        for (; i < arr.length; i++) {
+            if (arr[i] != value) result[j++] = arr[i];
+        }
+        return result;
+    }
+
+    //swap mirrored vectors from both ends, reversing lanes inside each
+    @Override
+    public int[] reverse(int[] arr) {
+        int lo = 0;
+        int hi = arr.length - LANES;
+        for (; lo + LANES <= hi; lo += LANES, hi -= LANES) {
+            IntVector left = IntVector.fromArray(SPECIES, arr, lo).rearrange(REVERSE);
+            IntVector right = IntVector.fromArray(SPECIES, arr, hi).rearrange(REVERSE);
+            right.intoArray(arr, lo);
+            left.intoArray(arr, hi);
+        }
+        // middle part (< 2 vectors) scalar
+        for (int i = lo, j = hi + LANES - 1; i < j; i++, j--) {
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+        return arr;
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SPECIES + ")";
+    }
+}